@@ -0,0 +1,152 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compare a JMH JSON result file against a baseline recorded in {@code baselines/} and fail when any
+ * benchmark got slower than the allowed threshold.
+ *
+ * <p>A benchmark regresses only when its confidence interval and the one of the baseline are apart by more than the
+ * threshold, so the noise JMH reports as score error is not taken as a regression.
+ *
+ * <p>Usage: {@code BaselineComparator <baseline.json> <result.json> [threshold-percent]}
+ */
+public final class BaselineComparator {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private BaselineComparator() {
+        // Utility class
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator <baseline.json> <result.json> [threshold-percent]");
+            System.exit(2);
+        }
+
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, Score> baseline = read(Path.of(args[0]));
+        Map<String, Score> result = read(Path.of(args[1]));
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Score> entry : result.entrySet()) {
+            Score previous = baseline.get(entry.getKey());
+            if (previous == null) {
+                System.out.printf("%-100s %12.3f %-8s (new)%n", entry.getKey(), entry.getValue().value(), entry.getValue().unit());
+                continue;
+            }
+
+            double change = entry.getValue().changePercent(previous);
+            double regression = entry.getValue().regressionPercent(previous);
+            System.out.printf(
+                "%-100s %12.3f ± %-10.3f %-8s %+7.1f%% (%+.1f%% beyond the error)%n",
+                entry.getKey(),
+                entry.getValue().value(),
+                entry.getValue().error(),
+                entry.getValue().unit(),
+                change,
+                regression
+            );
+            if (regression > threshold) {
+                regressions.add(entry.getKey());
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            System.out.printf(
+                "%d benchmark(s) regressed more than %.1f%% beyond the score error: %s%n",
+                regressions.size(),
+                threshold,
+                regressions
+            );
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(Path path) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : OBJECT_MAPPER.readTree(path.toFile())) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").properties().forEach(param -> params.put(param.getKey(), param.getValue().asText()));
+            params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+
+            JsonNode metric = run.path("primaryMetric");
+            // JMH writes NaN as the error of a run with a single iteration
+            double error = metric.path("scoreError").asDouble();
+            scores.put(
+                key.toString(),
+                new Score(
+                    metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error,
+                    metric.path("scoreUnit").asText(),
+                    run.path("mode").asText()
+                )
+            );
+        }
+
+        return scores;
+    }
+
+    /**
+     * @param value score of the benchmark
+     * @param error half width of the 99.9% confidence interval of the score
+     * @param unit unit of the score
+     * @param mode JMH mode, higher scores are better only in {@code thrpt}
+     */
+    private record Score(double value, double error, String unit, String mode) {
+        /**
+         * @return how much worse this score is than the baseline, in percent. Negative values are improvements.
+         */
+        double changePercent(Score baseline) {
+            double change = (this.value - baseline.value) / baseline.value * 100;
+
+            return "thrpt".equals(this.mode) ? -change : change;
+        }
+
+        /**
+         * @return how much worse the best end of the confidence interval of this score is than the worst end of the
+         *     one of the baseline, in percent of the baseline. Zero or negative when both intervals overlap.
+         */
+        double regressionPercent(Score baseline) {
+            double gap = "thrpt".equals(this.mode)
+                ? (baseline.value - baseline.error) - (this.value + this.error)
+                : (this.value - this.error) - (baseline.value + baseline.error);
+
+            return gap / baseline.value * 100;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.benchmarks;
+
+import com.kuflow.samples.temporal.worker.loan.model.DataSourceMocks;
+import com.kuflow.temporal.activity.datasource.model.DataSourceItem;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Synthetic product catalogues shaped like {@link DataSourceMocks#MOCK_PRODUCTS}.
+ */
+final class Catalogues {
+
+    private Catalogues() {
+        // Utility class
+    }
+
+    /**
+     * Build a catalogue of the given size. The mock products are repeated with a numeric suffix, so the
+     * label distribution (and so the selectivity of a query) is the same for every size.
+     */
+    static List<DataSourceItem> products(int size) {
+        List<DataSourceItem> mocks = DataSourceMocks.MOCK_PRODUCTS;
+        List<DataSourceItem> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            DataSourceItem mock = mocks.get(i % mocks.size());
+            int copy = i / mocks.size();
+            String id = copy == 0 ? mock.getId() : mock.getId() + "-" + copy;
+            String label = copy == 0 ? String.valueOf(mock.getProperty("label")) : mock.getProperty("label") + " " + copy;
+
+            products.add(
+                DataSourceItem.of(
+                    id,
+                    Map.of(
+                        "label",
+                        label,
+                        "name",
+                        label,
+                        "sku",
+                        mock.getProperty("sku"),
+                        "price",
+                        mock.getProperty("price"),
+                        "stock",
+                        mock.getProperty("stock")
+                    )
+                )
+            );
+        }
+
+        return List.copyOf(products);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.benchmarks;
+
+import static java.util.stream.Collectors.joining;
+
+import com.kuflow.samples.temporal.worker.loan.SampleEngineWorkerLoanProperties;
+import com.kuflow.samples.temporal.worker.loan.SampleEngineWorkerLoanPropertiesBinder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.introspector.Property;
+import org.yaml.snakeyaml.introspector.PropertyUtils;
+
+/**
+ * Contribution of the configuration loading of the loan worker to its cold start. Every fork loads the configuration
+ * once, so the score is the time of a first load in a fresh JVM, class loading included.
+ *
+ * <p>{@code reflective} is the loading the worker used before {@link SampleEngineWorkerLoanPropertiesBinder}: a
+ * SnakeYAML bean constructor with kebab-case names converted on every property lookup.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class ConfigurationBinderBenchmark {
+
+    @Benchmark
+    public SampleEngineWorkerLoanProperties binder() {
+        return SampleEngineWorkerLoanPropertiesBinder.load(SampleEngineWorkerLoanPropertiesBinder.CONFIGURATION_FILES, Map.of());
+    }
+
+    @Benchmark
+    public SampleEngineWorkerLoanProperties reflective() {
+        Constructor constructor = new Constructor(SampleEngineWorkerLoanProperties.class, new LoaderOptions());
+        constructor.setPropertyUtils(
+            new PropertyUtils() {
+                @Override
+                public Property getProperty(Class<?> type, String name) {
+                    name = Arrays.stream(name.split("-"))
+                        .map(s -> Character.toUpperCase(s.charAt(0)) + s.substring(1).toLowerCase())
+                        .collect(joining());
+                    name = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+                    return super.getProperty(type, name);
+                }
+            }
+        );
+
+        List<InputStream> streams = new ArrayList<>();
+        for (String file : SampleEngineWorkerLoanPropertiesBinder.CONFIGURATION_FILES) {
+            InputStream inputStream = SampleEngineWorkerLoanProperties.class.getResourceAsStream(file);
+            if (inputStream != null) {
+                streams.add(inputStream);
+            }
+        }
+
+        try (InputStream inputStream = new SequenceInputStream(Collections.enumeration(streams))) {
+            return Objects.requireNonNull(new Yaml(constructor).load(inputStream));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.benchmarks;
+
+import com.kuflow.samples.common.currency.CurrencyConverter;
+import com.kuflow.samples.common.currency.ExchangeRateCache;
+import com.kuflow.samples.common.currency.ExchangeRates;
+import com.kuflow.samples.common.currency.ExchangeRatesParser;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing of the currency API response and conversion with warm rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CurrencyBenchmark {
+
+    /**
+     * Number of currencies in the conversion table, the public API returns about three hundred.
+     */
+    @Param({ "3", "300" })
+    public int currencies;
+
+    private byte[] response;
+
+    private CurrencyConverter converter;
+
+    private BigDecimal amount;
+
+    @Setup
+    public void setUp() {
+        StringBuilder table = new StringBuilder("{\"date\":\"2024-01-01\",\"eur\":{\"eur\":1,\"usd\":1.09,\"gbp\":0.86");
+        for (int i = 3; i < this.currencies; i++) {
+            table.append(String.format(Locale.ROOT, ",\"c%03d\":%.6f", i, 1 + i / 100.0));
+        }
+        table.append("}}");
+        this.response = table.toString().getBytes(StandardCharsets.UTF_8);
+
+        // Rates served from memory, the cache is warm after the first call
+        ExchangeRateCache cache = new ExchangeRateCache(base -> this.parse());
+        this.converter = new CurrencyConverter(cache);
+        this.converter.convert(BigDecimal.ONE, "USD", "EUR");
+
+        this.amount = new BigDecimal("12345.67");
+    }
+
+    @Benchmark
+    public ExchangeRates parse() {
+        return ExchangeRatesParser.parse("eur", new ByteArrayInputStream(this.response));
+    }
+
+    @Benchmark
+    public BigDecimal convert() {
+        return this.converter.convert(this.amount, "USD", "EUR");
+    }
+
+    @Benchmark
+    public BigDecimal convertSameCurrency() {
+        return this.converter.convert(this.amount, "EUR", "EUR");
+    }
+}
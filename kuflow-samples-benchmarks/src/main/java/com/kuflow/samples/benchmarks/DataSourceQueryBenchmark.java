@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.benchmarks;
+
+import com.kuflow.samples.temporal.worker.loan.activity.DataSourceActivitiesImpl;
+import com.kuflow.temporal.activity.datasource.model.DataSourceQueryRequest;
+import com.kuflow.temporal.activity.datasource.model.DataSourceQueryResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link DataSourceActivitiesImpl#runQuery} over catalogues of different sizes, with queries of different
+ * selectivity and pages at different depths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class DataSourceQueryBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({ "150", "1000", "10000" })
+    public int catalogueSize;
+
+    /**
+     * Empty matches everything, {@code widget} a fraction of the catalogue, {@code widget a} a single
+     * mock product and its copies, {@code nomatch} nothing.
+     */
+    @Param({ "", "widget", "widget a", "nomatch" })
+    public String query;
+
+    /**
+     * Page to read: the first one, one in the middle of the catalogue and one past the end.
+     */
+    @Param({ "first", "middle", "beyond" })
+    public String page;
+
+    private DataSourceActivitiesImpl activities;
+
+    private DataSourceQueryRequest request;
+
+    @Setup
+    public void setUp() {
+        this.activities = new DataSourceActivitiesImpl(Catalogues.products(this.catalogueSize));
+
+        int pageNumber =
+            switch (this.page) {
+                case "first" -> 0;
+                case "middle" -> this.catalogueSize / PAGE_SIZE / 2;
+                case "beyond" -> this.catalogueSize / PAGE_SIZE + 1;
+                default -> throw new IllegalArgumentException("Unknown page " + this.page);
+            };
+
+        this.request = new DataSourceQueryRequest();
+        this.request.setCode("PRODUCTS");
+        this.request.setQuery(this.query);
+        this.request.setPageNumber(pageNumber);
+        this.request.setPageSize(PAGE_SIZE);
+    }
+
+    @Benchmark
+    public DataSourceQueryResponse runQuery() {
+        return this.activities.runQuery(this.request);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.benchmarks;
+
+import com.kuflow.samples.temporal.worker.loan.activity.DataSourceActivitiesImpl;
+import com.kuflow.temporal.activity.datasource.model.DataSourceItem;
+import com.kuflow.temporal.activity.datasource.model.DataSourceValidateValueRequest;
+import com.kuflow.temporal.activity.datasource.model.DataSourceValidateValueResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link DataSourceActivitiesImpl#validateValue} with a mix of known, unknown and malformed values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class DataSourceValidateBenchmark {
+
+    @Param({ "150", "10000" })
+    public int catalogueSize;
+
+    @Param({ "1", "20" })
+    public int valueCount;
+
+    private DataSourceActivitiesImpl activities;
+
+    private DataSourceValidateValueRequest request;
+
+    @Setup
+    public void setUp() {
+        List<DataSourceItem> products = Catalogues.products(this.catalogueSize);
+        this.activities = new DataSourceActivitiesImpl(products);
+
+        // Every fourth value is unknown and every eighth is not a map, the rest are spread over the catalogue
+        List<Object> values = new ArrayList<>(this.valueCount);
+        for (int i = 0; i < this.valueCount; i++) {
+            if (i % 8 == 7) {
+                values.add("prod-" + i);
+            } else if (i % 4 == 3) {
+                values.add(Map.of("id", "unknown-" + i));
+            } else {
+                values.add(Map.of("id", products.get((i * 7919) % products.size()).getId()));
+            }
+        }
+
+        this.request = new DataSourceValidateValueRequest();
+        this.request.setCode("PRODUCTS");
+        this.request.setValues(values);
+    }
+
+    @Benchmark
+    public DataSourceValidateValueResponse validateValue() {
+        return this.activities.validateValue(this.request);
+    }
+}
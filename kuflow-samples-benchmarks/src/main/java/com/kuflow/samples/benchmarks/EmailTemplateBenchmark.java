@@ -0,0 +1,80 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.benchmarks;
+
+import com.kuflow.samples.temporal.worker.email.SampleEngineWorkerEmailProperties.EmailTemplatesProperties;
+import com.kuflow.samples.temporal.worker.email.mail.EmailTemplateRenderer;
+import com.kuflow.samples.temporal.worker.email.mail.EmailTemplateRenderer.RenderedEmail;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rendering throughput of the email worker template, subject and body, with the template cache enabled and with every
+ * render parsing the template again. Run it with {@code -prof gc} to compare the bytes allocated per email.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class EmailTemplateBenchmark {
+
+    @Param({ "true", "false" })
+    public boolean cache;
+
+    private EmailTemplateRenderer renderer;
+
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setUp() {
+        EmailTemplatesProperties properties = new EmailTemplatesProperties();
+        properties.setCache(this.cache);
+
+        this.renderer = new EmailTemplateRenderer(properties);
+        this.variables = Map.of("subject", "Loan application approved", "body", "<p>Your loan of <b>1.500,00 EUR</b> was approved.</p>");
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.renderer.close();
+    }
+
+    @Benchmark
+    public RenderedEmail render() {
+        return this.renderer.render("email", this.variables);
+    }
+}
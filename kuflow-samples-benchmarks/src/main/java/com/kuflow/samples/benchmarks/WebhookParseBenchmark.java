@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.benchmarks;
+
+import com.kuflow.rest.KuFlowRestClient;
+import com.kuflow.rest.KuFlowRestClientBuilder;
+import com.kuflow.rest.model.WebhookEvent;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link KuFlowRestClient#parseWebhookEvent} for the two event types handled by the REST loan worker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebhookParseBenchmark {
+
+    private KuFlowRestClient kuFlowRestClient;
+
+    private String processStateChanged;
+
+    private String processItemTaskStateChanged;
+
+    @Setup
+    public void setUp() {
+        // Parsing is local, the client never connects to this endpoint
+        this.kuFlowRestClient = new KuFlowRestClientBuilder()
+            .clientId("benchmark")
+            .clientSecret("benchmark")
+            .endpoint("http://localhost:1")
+            .buildClient();
+
+        String timestamp = OffsetDateTime.now().toString();
+        this.processStateChanged =
+            """
+            {"id":"%s","type":"PROCESS.STATE_CHANGED","timestamp":"%s",\
+            "data":{"processId":"%s","processState":"COMPLETED"}}\
+            """.formatted(UUID.randomUUID(), timestamp, UUID.randomUUID());
+        this.processItemTaskStateChanged =
+            """
+            {"id":"%s","type":"PROCESS_ITEM.TASK_STATE_CHANGED","timestamp":"%s",\
+            "data":{"processId":"%s","processItemId":"%s","processItemType":"TASK",\
+            "processItemState":"COMPLETED","processItemDefinitionCode":"LOAN_APPLICATION"}}\
+            """.formatted(UUID.randomUUID(), timestamp, UUID.randomUUID(), UUID.randomUUID());
+    }
+
+    @Benchmark
+    public WebhookEvent processStateChanged() {
+        return this.kuFlowRestClient.parseWebhookEvent(this.processStateChanged);
+    }
+
+    @Benchmark
+    public WebhookEvent processItemTaskStateChanged() {
+        return this.kuFlowRestClient.parseWebhookEvent(this.processItemTaskStateChanged);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.benchmarks;
+
+import com.kuflow.samples.benchmarks.temporal.HistoryGenerator;
+import com.kuflow.samples.benchmarks.temporal.SampleWorkflows;
+import io.temporal.common.WorkflowExecutionHistory;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.testing.WorkflowReplayer;
+import io.temporal.worker.Worker;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of replaying a history of each sample workflow, which is what a worker pays for every open process
+ * it picks up after a restart or a sticky cache eviction.
+ *
+ * <p>Histories are generated on the Temporal test server before measuring and replayed against a single
+ * worker, so the cost of starting a worker is not part of the score. Run with {@code -prof gc} to get the
+ * bytes allocated per replayed history ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmarks.xml")
+public class WorkflowReplayBenchmark {
+
+    private static final int HISTORIES = 8;
+
+    @Param({ "LOAN", "EMAIL", "UIVISION" })
+    public SampleWorkflows workflow;
+
+    /**
+     * Unrelated task signals received before each task is completed, to get bigger histories.
+     */
+    @Param({ "0", "100", "1000" })
+    public int signalsPerTask;
+
+    private List<WorkflowExecutionHistory> histories;
+
+    private int next;
+
+    private TestWorkflowEnvironment replayEnvironment;
+
+    private Worker replayWorker;
+
+    @Setup
+    public void setUp() {
+        this.histories = HistoryGenerator.generate(this.workflow, HISTORIES, this.signalsPerTask);
+
+        this.replayEnvironment = TestWorkflowEnvironment.newInstance();
+        this.replayWorker = this.replayEnvironment.newWorker("replay");
+        this.replayWorker.registerWorkflowImplementationTypes(this.workflow.getWorkflowImplementations());
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.replayEnvironment.close();
+    }
+
+    @Benchmark
+    public void replay() throws Exception {
+        WorkflowExecutionHistory history = this.histories.get(this.next++ % HISTORIES);
+
+        WorkflowReplayer.replayWorkflowExecution(history, this.replayWorker);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.benchmarks.load;
+
+import com.kuflow.samples.benchmarks.temporal.SampleWorkflows;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Load test options, given as {@code --key=value} arguments.
+ *
+ * @param workflows workflows to load, one run each ({@code ALL} runs every one)
+ * @param executions workflow executions started at once in every run
+ * @param taskDelay time until a task created in KuFlow is completed, as a user filling it in would
+ * @param apiLatency latency of every stubbed KuFlow, currency, email and robot call
+ * @param signalsPerTask unrelated task signals received before each task is completed
+ * @param activitySlots maximum concurrent activity executions of the worker
+ * @param workflowTaskSlots maximum concurrent workflow task executions of the worker
+ * @param workflowCacheSize sticky workflow cache size of the worker factory
+ * @param timeout maximum duration of every run
+ */
+public record LoadTestOptions(
+    List<SampleWorkflows> workflows,
+    int executions,
+    Duration taskDelay,
+    Duration apiLatency,
+    int signalsPerTask,
+    int activitySlots,
+    int workflowTaskSlots,
+    int workflowCacheSize,
+    Duration timeout
+) {
+    private static final Set<String> KEYS = Set.of(
+        "workflow",
+        "executions",
+        "task-delay",
+        "api-latency",
+        "signals-per-task",
+        "activity-slots",
+        "workflow-task-slots",
+        "workflow-cache-size",
+        "timeout"
+    );
+
+    public static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Invalid argument '%s', expected --key=value".formatted(arg));
+            }
+
+            String key = arg.substring(2, arg.indexOf('='));
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unknown option '%s', expected one of %s".formatted(key, KEYS));
+            }
+
+            values.put(key, arg.substring(arg.indexOf('=') + 1));
+        }
+
+        String workflow = values.getOrDefault("workflow", "ALL").toUpperCase(Locale.ROOT);
+
+        return new LoadTestOptions(
+            "ALL".equals(workflow) ? Arrays.asList(SampleWorkflows.values()) : List.of(SampleWorkflows.valueOf(workflow)),
+            Integer.parseInt(values.getOrDefault("executions", "1000")),
+            Duration.parse(values.getOrDefault("task-delay", "PT0.5S")),
+            Duration.parse(values.getOrDefault("api-latency", "PT0.02S")),
+            Integer.parseInt(values.getOrDefault("signals-per-task", "0")),
+            Integer.parseInt(values.getOrDefault("activity-slots", "200")),
+            Integer.parseInt(values.getOrDefault("workflow-task-slots", "200")),
+            Integer.parseInt(values.getOrDefault("workflow-cache-size", "600")),
+            Duration.parse(values.getOrDefault("timeout", "PT10M"))
+        );
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.benchmarks.load;
+
+import com.kuflow.samples.benchmarks.temporal.AutoCompletingActivities;
+import com.kuflow.samples.benchmarks.temporal.SampleWorkflows;
+import com.kuflow.samples.common.metrics.ActivityMetricsInterceptor;
+import com.kuflow.samples.common.temporal.WorkerInterceptors;
+import com.kuflow.temporal.workflow.kuflow.model.WorkflowRequest;
+import com.kuflow.temporal.workflow.kuflow.model.WorkflowResponse;
+import com.sun.management.OperatingSystemMXBean;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.client.WorkflowStub;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import io.temporal.worker.WorkerFactoryOptions;
+import io.temporal.worker.WorkerOptions;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drive thousands of concurrent executions of the sample workflows through a worker running on the in-memory
+ * Temporal test server, with KuFlow and the rest of the services stubbed by {@link AutoCompletingActivities}.
+ * No external service is needed.
+ *
+ * <p>Every run reports the workflows completed per second, the time activities waited in the task queue and the
+ * CPU used. CPU is the one of the whole process, which includes the test server, the stubs and the client driving the
+ * load next to the worker, so it is reported as process CPU and is an upper bound of the CPU of the worker.
+ *
+ * <p>Usage: {@code java -Dlogback.configurationFile=logback-benchmarks.xml -cp benchmarks.jar
+ * com.kuflow.samples.benchmarks.load.WorkerLoadTest --workflow=LOAN --executions=5000}, see
+ * {@link LoadTestOptions} for every option.
+ */
+public final class WorkerLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkerLoadTest.class);
+
+    private static final String TASK_QUEUE = "load";
+
+    private WorkerLoadTest() {
+        // Utility class
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        for (SampleWorkflows workflow : options.workflows()) {
+            run(workflow, options);
+        }
+    }
+
+    private static void run(SampleWorkflows workflow, LoadTestOptions options) throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        meterRegistry.config().meterFilter(percentiles());
+
+        WorkerFactoryOptions.Builder workerFactoryOptions = WorkerFactoryOptions.newBuilder().setWorkflowCacheSize(
+            options.workflowCacheSize()
+        );
+        WorkerInterceptors.append(workerFactoryOptions, new ActivityMetricsInterceptor(meterRegistry));
+
+        TestWorkflowEnvironment testEnvironment = TestWorkflowEnvironment.newInstance(
+            TestEnvironmentOptions.newBuilder()
+                .setWorkerFactoryOptions(workerFactoryOptions.build())
+                // Real time, so schedule to start latencies are comparable with the local clock
+                .setUseTimeskipping(false)
+                .build()
+        );
+
+        WorkflowClient workflowClient = testEnvironment.getWorkflowClient();
+        try (
+            AutoCompletingActivities activities = new AutoCompletingActivities(
+                workflowClient,
+                options.signalsPerTask(),
+                options.taskDelay(),
+                options.apiLatency()
+            )
+        ) {
+            Worker worker = testEnvironment.newWorker(
+                TASK_QUEUE,
+                WorkerOptions.newBuilder()
+                    .setMaxConcurrentActivityExecutionSize(options.activitySlots())
+                    .setMaxConcurrentWorkflowTaskExecutionSize(options.workflowTaskSlots())
+                    .build()
+            );
+            worker.registerWorkflowImplementationTypes(workflow.getWorkflowImplementations());
+            worker.registerActivitiesImplementations(activities);
+            testEnvironment.start();
+
+            OperatingSystemMXBean os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+            long startCpu = os.getProcessCpuTime();
+            long start = System.nanoTime();
+
+            List<CompletableFuture<WorkflowResponse>> results = new ArrayList<>(options.executions());
+            for (int i = 0; i < options.executions(); i++) {
+                WorkflowStub stub = workflowClient.newUntypedWorkflowStub(
+                    workflow.getWorkflowType(),
+                    WorkflowOptions.newBuilder()
+                        .setWorkflowId("%s-%06d".formatted(workflow.name().toLowerCase(Locale.ROOT), i))
+                        .setTaskQueue(TASK_QUEUE)
+                        .build()
+                );
+
+                WorkflowRequest request = new WorkflowRequest();
+                request.setProcessId(new UUID(0, i));
+                stub.start(request);
+
+                results.add(stub.getResultAsync(WorkflowResponse.class));
+            }
+
+            int failed = 0;
+            long deadline = start + options.timeout().toNanos();
+            for (CompletableFuture<WorkflowResponse> result : results) {
+                try {
+                    result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException | TimeoutException e) {
+                    failed++;
+                }
+            }
+
+            long elapsed = System.nanoTime() - start;
+            long cpu = os.getProcessCpuTime() - startCpu;
+
+            report(workflow, options, meterRegistry, elapsed, cpu, failed);
+        } finally {
+            testEnvironment.close();
+        }
+    }
+
+    private static void report(
+        SampleWorkflows workflow,
+        LoadTestOptions options,
+        SimpleMeterRegistry meterRegistry,
+        long elapsedNanos,
+        long cpuNanos,
+        int failed
+    ) {
+        double seconds = elapsedNanos / 1e9;
+        int completed = options.executions() - failed;
+
+        StringBuilder report = new StringBuilder();
+        report.append(
+            "%nworkflows: %d completed, %d failed or timed out in %.1f s, %.1f workflows/s%n".formatted(
+                completed,
+                failed,
+                seconds,
+                completed / seconds
+            )
+        );
+        // Not the CPU of the worker alone, the test server and the client driving the load run in the same process
+        report.append(
+            "process cpu (worker, test server and load client): %.1f s, %.2f cores, %.2f ms per workflow%n".formatted(
+                cpuNanos / 1e9,
+                cpuNanos / (double) elapsedNanos,
+                completed == 0 ? 0.0 : cpuNanos / 1e6 / completed
+            )
+        );
+        report.append(
+            "%n%-45s %10s %12s %12s %12s %12s%n".formatted("activity queue latency", "count", "mean ms", "p50 ms", "p99 ms", "max ms")
+        );
+
+        for (Timer timer : meterRegistry.find(ActivityMetricsInterceptor.METRIC_SCHEDULE_TO_START).timers()) {
+            ValueAtPercentile[] percentiles = timer.takeSnapshot().percentileValues();
+            report.append(
+                "%-45s %10d %12.1f %12.1f %12.1f %12.1f%n".formatted(
+                    timer.getId().getTag("activity_type"),
+                    timer.count(),
+                    timer.mean(TimeUnit.MILLISECONDS),
+                    percentiles[0].value(TimeUnit.MILLISECONDS),
+                    percentiles[1].value(TimeUnit.MILLISECONDS),
+                    timer.max(TimeUnit.MILLISECONDS)
+                )
+            );
+        }
+
+        LOGGER.info(
+            "Load test of {} finished (executions={}, task-delay={}, api-latency={}, activity-slots={}, workflow-task-slots={}){}",
+            workflow,
+            options.executions(),
+            options.taskDelay(),
+            options.apiLatency(),
+            options.activitySlots(),
+            options.workflowTaskSlots(),
+            report
+        );
+    }
+
+    private static MeterFilter percentiles() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentiles(0.5, 0.99).build().merge(config);
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.benchmarks.startup;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Startup benchmark options, given as {@code --key=value} arguments.
+ *
+ * <p>Every build to compare is a command line, split on spaces, and an empty value skips it. A leading {@code java}
+ * is replaced with the JVM running the benchmark. The defaults compare the non-Spring loan worker with and without
+ * its AppCDS archive, for a Spring worker built with {@code -Pnative} use for example
+ * {@code --jvm="java -jar kuflow-samples-temporal-email-spring/target/kuflow-samples-temporal-email-spring.jar"
+ * --appcds= --native=kuflow-samples-temporal-email-spring/target/kuflow-samples-temporal-email-spring}.
+ *
+ * @param commands command line of every build to compare, by name
+ * @param runs runs of every build
+ * @param timeout maximum time to wait for the first poll of every run
+ */
+public record StartupBenchmarkOptions(Map<String, List<String>> commands, int runs, Duration timeout) {
+    private static final Set<String> KEYS = Set.of("jvm", "appcds", "native", "runs", "timeout");
+
+    private static final String LOAN_JAR = "kuflow-samples-temporal-loan/target/kuflow-samples-temporal-loan.jar";
+
+    private static final String LOAN_ARCHIVE = "kuflow-samples-temporal-loan/target/kuflow-samples-temporal-loan.jsa";
+
+    public static StartupBenchmarkOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Invalid argument '%s', expected --key=value".formatted(arg));
+            }
+
+            String key = arg.substring(2, arg.indexOf('='));
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unknown option '%s', expected one of %s".formatted(key, KEYS));
+            }
+
+            values.put(key, arg.substring(arg.indexOf('=') + 1));
+        }
+
+        Map<String, List<String>> commands = new LinkedHashMap<>();
+        command(commands, "jvm", values.getOrDefault("jvm", "java -jar " + LOAN_JAR));
+        command(commands, "appcds", values.getOrDefault("appcds", "java -XX:SharedArchiveFile=" + LOAN_ARCHIVE + " -jar " + LOAN_JAR));
+        command(commands, "native", values.getOrDefault("native", ""));
+
+        return new StartupBenchmarkOptions(
+            commands,
+            Integer.parseInt(values.getOrDefault("runs", "10")),
+            Duration.parse(values.getOrDefault("timeout", "PT60S"))
+        );
+    }
+
+    private static void command(Map<String, List<String>> commands, String name, String command) {
+        if (!command.isBlank()) {
+            commands.put(name, Arrays.asList(command.trim().split(" +")));
+        }
+    }
+}
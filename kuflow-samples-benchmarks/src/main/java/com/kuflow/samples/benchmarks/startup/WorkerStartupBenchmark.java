@@ -0,0 +1,170 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.benchmarks.startup;
+
+import com.kuflow.samples.common.temporal.FirstPollInterceptor;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measure the time from process start to the first workflow task poll, and the resident memory at that point, of
+ * different builds of a worker: plain JVM, JVM with an AppCDS archive and native executable. Every run is a new
+ * process started with {@code --exit-after-first-poll}, and the figures are the ones logged by
+ * {@link FirstPollInterceptor}.
+ *
+ * <p>The worker uses its own configuration, so it needs access to KuFlow and Temporal as in a normal run.
+ *
+ * <p>Usage: {@code java -Dlogback.configurationFile=logback-benchmarks.xml -cp benchmarks.jar
+ * com.kuflow.samples.benchmarks.startup.WorkerStartupBenchmark --runs=10}, see {@link StartupBenchmarkOptions}.
+ */
+public final class WorkerStartupBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkerStartupBenchmark.class);
+
+    private WorkerStartupBenchmark() {
+        // Utility class
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        StartupBenchmarkOptions options = StartupBenchmarkOptions.parse(args);
+
+        StringBuilder report = new StringBuilder();
+        report.append(
+            "%n%-10s %6s %8s %10s %10s %10s %12s%n".formatted("build", "runs", "failed", "min ms", "median ms", "max ms", "median RSS")
+        );
+        for (Map.Entry<String, List<String>> entry : options.commands().entrySet()) {
+            report.append(measure(entry.getKey(), entry.getValue(), options));
+        }
+
+        LOGGER.info("Startup benchmark finished{}", report);
+    }
+
+    private static String measure(String build, List<String> command, StartupBenchmarkOptions options)
+        throws IOException, InterruptedException {
+        List<Long> times = new ArrayList<>(options.runs());
+        List<Long> rss = new ArrayList<>(options.runs());
+        for (int i = 0; i < options.runs(); i++) {
+            Optional<Startup> startup = run(command, options);
+            startup.ifPresent(it -> {
+                times.add(it.millis());
+                if (it.rssMiB() >= 0) {
+                    rss.add(it.rssMiB());
+                }
+            });
+        }
+
+        if (times.isEmpty()) {
+            return "%-10s %6d %8d %10s %10s %10s %12s%n".formatted(build, options.runs(), options.runs(), "-", "-", "-", "-");
+        }
+
+        Collections.sort(times);
+        Collections.sort(rss);
+
+        return "%-10s %6d %8d %10d %10d %10d %12s%n".formatted(
+            build,
+            options.runs(),
+            options.runs() - times.size(),
+            times.get(0),
+            times.get(times.size() / 2),
+            times.get(times.size() - 1),
+            rss.isEmpty() ? "-" : rss.get(rss.size() / 2) + " MiB"
+        );
+    }
+
+    private static Optional<Startup> run(List<String> command, StartupBenchmarkOptions options) throws IOException, InterruptedException {
+        List<String> processCommand = new ArrayList<>(command);
+        if ("java".equals(processCommand.get(0))) {
+            processCommand.set(0, Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        }
+        processCommand.add(FirstPollInterceptor.ARG_EXIT_AFTER_FIRST_POLL);
+
+        Process process = new ProcessBuilder(processCommand).redirectErrorStream(true).start();
+        CompletableFuture<Optional<Startup>> startup = CompletableFuture.supplyAsync(() -> readStartup(process));
+        try {
+            return startup.get(options.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.warn("{} did not poll within {}", command, options.timeout());
+
+            return Optional.empty();
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static Optional<Startup> readStartup(Process process) {
+        try (
+            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))
+        ) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int index = line.indexOf(FirstPollInterceptor.STARTUP_MESSAGE_PREFIX);
+                if (index >= 0) {
+                    return Optional.of(Startup.parse(line.substring(index + FirstPollInterceptor.STARTUP_MESSAGE_PREFIX.length())));
+                }
+            }
+
+            return Optional.empty();
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param millis time from process start to the first poll
+     * @param rssMiB resident memory at the first poll, -1 when not reported
+     */
+    private record Startup(long millis, long rssMiB) {
+        /**
+         * @param message what follows the startup prefix, as in {@code 1234 ms, RSS 150 MiB}
+         */
+        static Startup parse(String message) {
+            long millis = Long.parseLong(message.split(" ")[0]);
+
+            int index = message.indexOf(FirstPollInterceptor.RSS_MESSAGE_PREFIX);
+            if (index < 0) {
+                return new Startup(millis, -1);
+            }
+
+            String rss = message.substring(index + FirstPollInterceptor.RSS_MESSAGE_PREFIX.length());
+
+            return new Startup(millis, Long.parseLong(rss.split(" ")[0]));
+        }
+    }
+}
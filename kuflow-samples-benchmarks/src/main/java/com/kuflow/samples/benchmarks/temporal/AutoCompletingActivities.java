@@ -0,0 +1,168 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.benchmarks.temporal;
+
+import com.kuflow.temporal.activity.kuflow.model.ProcessItemCreateRequest;
+import com.kuflow.temporal.workflow.kuflow.model.SignalProcessItem;
+import com.kuflow.temporal.workflow.kuflow.model.SignalProcessItemType;
+import io.temporal.activity.Activity;
+import io.temporal.activity.ActivityInfo;
+import io.temporal.activity.DynamicActivity;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowStub;
+import io.temporal.common.converter.EncodedValues;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answer every activity used by the sample workflows without leaving the JVM, playing the role of KuFlow,
+ * the currency API, the SMTP server and the robot.
+ *
+ * <p>Every process item created is completed by sending the {@code SignalProcessItem} the KuFlow engine
+ * would send once a user fills in the task, after {@code taskDelay}. Before it, {@code signalsPerTask}
+ * signals for unrelated tasks are sent too, so the history grows as it does in long lived processes.
+ * Every activity takes {@code apiLatency} to answer, as a call to the real service would.
+ */
+public class AutoCompletingActivities implements DynamicActivity, AutoCloseable {
+
+    private static final String SIGNAL_PROCESS_ITEM = "KuFlow_Engine_SignalProcessItem";
+
+    private static final Map<String, Object> TASK_DATA = Map.of(
+        "FIRST_NAME",
+        "John",
+        "LAST_NAME",
+        "Doe",
+        "AMOUNT",
+        "10000",
+        "CURRENCY",
+        "USD",
+        "APPROVAL",
+        "YES",
+        "EMAIL_RECIPIENT",
+        "john.doe@example.com",
+        "EMAIL_SUBJECT",
+        "Benchmark",
+        "EMAIL_BODY",
+        "Sent by the benchmark"
+    );
+
+    private final WorkflowClient workflowClient;
+
+    private final int signalsPerTask;
+
+    private final Duration taskDelay;
+
+    private final Duration apiLatency;
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+        Math.max(2, Runtime.getRuntime().availableProcessors()),
+        runnable -> {
+            Thread thread = new Thread(runnable, "kuflow-stub-tasks");
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    );
+
+    public AutoCompletingActivities(WorkflowClient workflowClient, int signalsPerTask) {
+        this(workflowClient, signalsPerTask, Duration.ZERO, Duration.ZERO);
+    }
+
+    public AutoCompletingActivities(WorkflowClient workflowClient, int signalsPerTask, Duration taskDelay, Duration apiLatency) {
+        this.workflowClient = workflowClient;
+        this.signalsPerTask = signalsPerTask;
+        this.taskDelay = taskDelay;
+        this.apiLatency = apiLatency;
+    }
+
+    @Override
+    public void close() {
+        this.scheduler.shutdownNow();
+    }
+
+    @Override
+    public Object execute(EncodedValues args) {
+        this.simulateLatency();
+
+        ActivityInfo info = Activity.getExecutionContext().getInfo();
+        String activityType = info.getActivityType();
+        String method = activityType.substring(activityType.lastIndexOf('_') + 1);
+
+        return switch (method) {
+            case "CreateProcessItem" -> this.createProcessItem(info.getWorkflowId(), args.get(0, ProcessItemCreateRequest.class));
+            case "RetrieveProcess" -> Map.of("process", Map.of("id", UUID.randomUUID(), "initiatorId", UUID.randomUUID()));
+            case "RetrieveProcessItem" -> Map.of(
+                "processItem",
+                Map.of("id", UUID.randomUUID(), "task", Map.of("data", Map.of("value", TASK_DATA)))
+            );
+            case "Convert" -> args.get(0, String.class);
+            default -> Map.of();
+        };
+    }
+
+    private Map<String, Object> createProcessItem(String workflowId, ProcessItemCreateRequest request) {
+        if (this.taskDelay.isZero()) {
+            this.completeTask(workflowId, request.getId());
+        } else {
+            this.scheduler.schedule(
+                () -> this.completeTask(workflowId, request.getId()),
+                this.taskDelay.toNanos(),
+                TimeUnit.NANOSECONDS
+            );
+        }
+
+        return Map.of();
+    }
+
+    private void completeTask(String workflowId, UUID processItemId) {
+        WorkflowStub workflow = this.workflowClient.newUntypedWorkflowStub(workflowId);
+        for (int i = 0; i < this.signalsPerTask; i++) {
+            workflow.signal(SIGNAL_PROCESS_ITEM, signal(UUID.randomUUID()));
+        }
+        workflow.signal(SIGNAL_PROCESS_ITEM, signal(processItemId));
+    }
+
+    private void simulateLatency() {
+        if (this.apiLatency.isZero()) {
+            return;
+        }
+
+        try {
+            Thread.sleep(this.apiLatency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static SignalProcessItem signal(UUID processItemId) {
+        SignalProcessItem signal = new SignalProcessItem();
+        signal.setId(processItemId);
+        signal.setType(SignalProcessItemType.TASK);
+
+        return signal;
+    }
+}
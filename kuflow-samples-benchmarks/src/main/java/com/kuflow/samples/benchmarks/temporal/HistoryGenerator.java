@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.benchmarks.temporal;
+
+import com.kuflow.temporal.workflow.kuflow.model.WorkflowRequest;
+import com.kuflow.temporal.workflow.kuflow.model.WorkflowResponse;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.client.WorkflowStub;
+import io.temporal.common.WorkflowExecutionHistory;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.worker.Worker;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Run the sample workflows to completion on the in-memory Temporal test server and collect their histories.
+ */
+public final class HistoryGenerator {
+
+    private static final String TASK_QUEUE = "benchmark";
+
+    private HistoryGenerator() {
+        // Utility class
+    }
+
+    /**
+     * @param workflow workflow to run
+     * @param count number of executions
+     * @param signalsPerTask unrelated task signals received before each task is completed
+     * @return histories of the completed executions
+     */
+    public static List<WorkflowExecutionHistory> generate(SampleWorkflows workflow, int count, int signalsPerTask) {
+        TestWorkflowEnvironment testEnvironment = TestWorkflowEnvironment.newInstance();
+        WorkflowClient workflowClient = testEnvironment.getWorkflowClient();
+        try (AutoCompletingActivities activities = new AutoCompletingActivities(workflowClient, signalsPerTask)) {
+            Worker worker = testEnvironment.newWorker(TASK_QUEUE);
+            worker.registerWorkflowImplementationTypes(workflow.getWorkflowImplementations());
+            worker.registerActivitiesImplementations(activities);
+            testEnvironment.start();
+
+            List<WorkflowExecutionHistory> histories = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String workflowId = workflow.name().toLowerCase(Locale.ROOT) + "-" + UUID.randomUUID();
+                WorkflowStub stub = workflowClient.newUntypedWorkflowStub(
+                    workflow.getWorkflowType(),
+                    WorkflowOptions.newBuilder().setWorkflowId(workflowId).setTaskQueue(TASK_QUEUE).build()
+                );
+
+                WorkflowRequest request = new WorkflowRequest();
+                request.setProcessId(UUID.randomUUID());
+                stub.start(request);
+                stub.getResult(WorkflowResponse.class);
+
+                histories.add(workflowClient.fetchHistory(workflowId));
+            }
+
+            return histories;
+        } finally {
+            testEnvironment.close();
+        }
+    }
+
+    /**
+     * Write histories as JSON, the format read by {@code WorkflowReplayer} and printed by
+     * {@code temporal workflow show --output json}.
+     *
+     * <p>Usage: {@code HistoryGenerator <directory> [count] [signals-per-task]}
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "histories");
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int signalsPerTask = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        Files.createDirectories(directory);
+        for (SampleWorkflows workflow : SampleWorkflows.values()) {
+            for (WorkflowExecutionHistory history : generate(workflow, count, signalsPerTask)) {
+                Path file = directory.resolve(history.getWorkflowExecution().getWorkflowId() + ".json");
+                Files.writeString(file, history.toJson(true));
+                System.out.printf("%s %d events%n", file, history.getEvents().size());
+            }
+        }
+    }
+}
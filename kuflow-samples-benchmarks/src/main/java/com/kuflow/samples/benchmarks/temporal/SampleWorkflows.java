@@ -0,0 +1,68 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.benchmarks.temporal;
+
+import com.kuflow.samples.temporal.worker.email.workflow.EmailFanOutWorkflowImpl;
+import com.kuflow.samples.temporal.worker.email.workflow.SampleWorkflow;
+import com.kuflow.samples.temporal.worker.email.workflow.SampleWorkflowImpl;
+import com.kuflow.samples.temporal.worker.loan.workflow.SampleEngineWorkerLoanWorkflow;
+import com.kuflow.samples.temporal.worker.loan.workflow.SampleEngineWorkerLoanWorkflowImpl;
+import com.kuflow.samples.temporal.worker.uivision.workflow.UIVisionSampleWorkflow;
+import com.kuflow.samples.temporal.worker.uivision.workflow.UIVisionSampleWorkflowImpl;
+
+/**
+ * Workflows of the sample workers exercised by the benchmarks.
+ */
+public enum SampleWorkflows {
+    LOAN(SampleEngineWorkerLoanWorkflow.class, SampleEngineWorkerLoanWorkflowImpl.class),
+
+    EMAIL(SampleWorkflow.class, SampleWorkflowImpl.class, EmailFanOutWorkflowImpl.class),
+
+    UIVISION(UIVisionSampleWorkflow.class, UIVisionSampleWorkflowImpl.class);
+
+    private final Class<?> workflowInterface;
+
+    private final Class<?>[] workflowImplementations;
+
+    /**
+     * @param workflowImplementations implementation of the workflow followed by the ones of its child workflows
+     */
+    SampleWorkflows(Class<?> workflowInterface, Class<?>... workflowImplementations) {
+        this.workflowInterface = workflowInterface;
+        this.workflowImplementations = workflowImplementations;
+    }
+
+    /**
+     * @return workflow type, Temporal defaults it to the simple name of the interface
+     */
+    public String getWorkflowType() {
+        return this.workflowInterface.getSimpleName();
+    }
+
+    /**
+     * @return implementations to register in the worker, child workflows included
+     */
+    public Class<?>[] getWorkflowImplementations() {
+        return this.workflowImplementations.clone();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.currency;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Convert amounts between the currencies supported by the loan samples, using cached conversion tables.
+ */
+public class CurrencyConverter {
+
+    private final ExchangeRateCache exchangeRateCache;
+
+    public CurrencyConverter(ExchangeRateCache exchangeRateCache) {
+        this.exchangeRateCache = Objects.requireNonNull(exchangeRateCache, "'exchangeRateCache' is required");
+    }
+
+    /**
+     * @param amount amount to convert
+     * @param from source currency, ie: {@code USD}
+     * @param to target currency, ie: {@code EUR}
+     * @return the converted amount
+     * @throws UnsupportedCurrencyException if any of the currencies is not supported
+     * @throws CurrencyConversionException if the conversion table cannot be retrieved
+     */
+    public BigDecimal convert(BigDecimal amount, String from, String to) {
+        String fromTransformed = this.transformCurrencyCode(from);
+        String toTransformed = this.transformCurrencyCode(to);
+
+        BigDecimal conversion = this.exchangeRateCache.get(fromTransformed).rate(toTransformed);
+
+        return amount.multiply(conversion);
+    }
+
+    private String transformCurrencyCode(String currency) {
+        if (currency == null) {
+            throw new UnsupportedCurrencyException(null);
+        }
+
+        return switch (currency) {
+            case "EUR" -> "eur";
+            case "USD" -> "usd";
+            case "GBP" -> "gbp";
+            default -> throw new UnsupportedCurrencyException(currency);
+        };
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.currency;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keep the conversion table of each base currency for a time-to-live.
+ * <p>
+ * Expired or missing tables are refreshed with a single request: concurrent callers asking for the same base
+ * currency wait for the refresh already in flight instead of issuing their own.
+ */
+public class ExchangeRateCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExchangeRateCache.class);
+
+    public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+
+    private final ExchangeRateClient client;
+
+    private final Duration ttl;
+
+    private final Clock clock;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Map<String, CompletableFuture<ExchangeRates>> refreshes = new ConcurrentHashMap<>();
+
+    public ExchangeRateCache(ExchangeRateClient client) {
+        this(client, DEFAULT_TTL);
+    }
+
+    public ExchangeRateCache(ExchangeRateClient client, Duration ttl) {
+        this(client, ttl, Clock.systemUTC());
+    }
+
+    public ExchangeRateCache(ExchangeRateClient client, Duration ttl, Clock clock) {
+        this.client = Objects.requireNonNull(client, "'client' is required");
+        this.ttl = Objects.requireNonNull(ttl, "'ttl' is required");
+        this.clock = Objects.requireNonNull(clock, "'clock' is required");
+    }
+
+    /**
+     * @param base lower-case code of the base currency
+     * @return the cached rates, refreshed first if they are missing or expired
+     */
+    public ExchangeRates get(String base) {
+        Entry entry = this.entries.get(base);
+        if (entry != null && entry.isFresh(this.clock.instant())) {
+            return entry.rates();
+        }
+
+        return this.refresh(base);
+    }
+
+    /**
+     * Discard every cached table, the next request of each base currency fetches it again.
+     */
+    public void invalidateAll() {
+        this.entries.clear();
+    }
+
+    private ExchangeRates refresh(String base) {
+        CompletableFuture<ExchangeRates> refresh = new CompletableFuture<>();
+        CompletableFuture<ExchangeRates> inFlight = this.refreshes.putIfAbsent(base, refresh);
+        if (inFlight != null) {
+            return this.join(inFlight);
+        }
+
+        try {
+            // A refresh may have finished between the caller reading the stale entry and this one starting
+            Entry entry = this.entries.get(base);
+            if (entry != null && entry.isFresh(this.clock.instant())) {
+                refresh.complete(entry.rates());
+
+                return entry.rates();
+            }
+
+            ExchangeRates rates = this.client.fetch(base);
+            this.entries.put(base, new Entry(rates, this.clock.instant().plus(this.ttl)));
+            refresh.complete(rates);
+            LOGGER.debug("Conversion table for {} refreshed", base);
+
+            return rates;
+        } catch (RuntimeException e) {
+            refresh.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.refreshes.remove(base, refresh);
+        }
+    }
+
+    private ExchangeRates join(CompletableFuture<ExchangeRates> refresh) {
+        try {
+            return refresh.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw e;
+        }
+    }
+
+    private record Entry(ExchangeRates rates, Instant expiresAt) {
+        boolean isFresh(Instant now) {
+            return now.isBefore(this.expiresAt);
+        }
+    }
+}
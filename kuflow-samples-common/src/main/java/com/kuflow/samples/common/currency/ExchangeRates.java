@@ -0,0 +1,49 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.currency;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Conversion table published for a base currency.
+ *
+ * @param base lower-case code of the base currency, ie: {@code eur}
+ * @param rates rate of each target currency keyed by its lower-case code
+ */
+public record ExchangeRates(String base, Map<String, BigDecimal> rates) {
+    public ExchangeRates {
+        Objects.requireNonNull(base, "'base' is required");
+        rates = Map.copyOf(Objects.requireNonNull(rates, "'rates' is required"));
+    }
+
+    public BigDecimal rate(String target) {
+        BigDecimal rate = this.rates.get(target);
+        if (rate == null) {
+            throw new CurrencyConversionException("No conversion rate from " + this.base + " to " + target);
+        }
+
+        return rate;
+    }
+}
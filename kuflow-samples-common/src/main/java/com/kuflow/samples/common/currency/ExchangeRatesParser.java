@@ -0,0 +1,69 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.currency;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read the conversion table of the currency API, ie: <code>{"date": "...", "eur": {"usd": 1.08, ...}}</code>.
+ */
+public final class ExchangeRatesParser {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private ExchangeRatesParser() {
+        // Utility class
+    }
+
+    public static ExchangeRates parse(String base, InputStream inputStream) {
+        try {
+            return parse(base, OBJECT_MAPPER.readTree(inputStream));
+        } catch (IOException e) {
+            throw new CurrencyConversionException("Invalid conversion table for " + base, e);
+        }
+    }
+
+    public static ExchangeRates parse(String base, JsonNode response) {
+        JsonNode conversionTable = response != null ? response.get(base) : null;
+        if (conversionTable == null || !conversionTable.isObject()) {
+            throw new CurrencyConversionException("Conversion table for " + base + " not found");
+        }
+
+        Map<String, BigDecimal> rates = new HashMap<>(conversionTable.size() * 2);
+        conversionTable
+            .properties()
+            .forEach(entry -> {
+                if (entry.getValue().isNumber()) {
+                    rates.put(entry.getKey(), BigDecimal.valueOf(entry.getValue().doubleValue()));
+                }
+            });
+
+        return new ExchangeRates(base, rates);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.currency;
+
+import com.kuflow.samples.common.jfr.HttpCallEvent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * {@link ExchangeRateClient} backed by the JDK {@link HttpClient}, for workers that do not run inside Spring.
+ */
+public class JdkExchangeRateClient implements ExchangeRateClient {
+
+    private volatile HttpClient httpClient;
+
+    private final String endpoint;
+
+    private final Duration timeout;
+
+    public JdkExchangeRateClient() {
+        this(DEFAULT_ENDPOINT, Duration.ofSeconds(30));
+    }
+
+    /**
+     * @param endpoint endpoint template, {@code %s} is replaced with the base currency
+     * @param timeout connect and read timeout
+     */
+    public JdkExchangeRateClient(String endpoint, Duration timeout) {
+        this.endpoint = Objects.requireNonNull(endpoint, "'endpoint' is required");
+        this.timeout = Objects.requireNonNull(timeout, "'timeout' is required");
+    }
+
+    @Override
+    public ExchangeRates fetch(String base) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(String.format(this.endpoint, base))).timeout(this.timeout).GET().build();
+
+        HttpCallEvent event = new HttpCallEvent();
+        event.begin();
+        event.request(HttpCallEvent.TARGET_EXCHANGE_RATE, request.method(), request.uri().toString(), 0);
+
+        HttpResponse<InputStream> response = null;
+        Throwable failure = null;
+        try {
+            response = this.httpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new CurrencyConversionException("Unexpected status " + response.statusCode() + " fetching rates for " + base);
+                }
+
+                return ExchangeRatesParser.parse(base, body);
+            }
+        } catch (IOException e) {
+            failure = e;
+            throw new CurrencyConversionException("Error fetching rates for " + base, e);
+        } catch (InterruptedException e) {
+            failure = e;
+            Thread.currentThread().interrupt();
+            throw new CurrencyConversionException("Interrupted fetching rates for " + base, e);
+        } finally {
+            if (response == null) {
+                event.complete(0, -1, failure);
+            } else {
+                event.complete(response.statusCode(), response.headers().firstValueAsLong("Content-Length").orElse(-1), failure);
+            }
+        }
+    }
+
+    /**
+     * The client starts its selector thread when built, so it is built on the first fetch instead of when the worker
+     * starts.
+     */
+    private HttpClient httpClient() {
+        HttpClient httpClient = this.httpClient;
+        if (httpClient == null) {
+            synchronized (this) {
+                httpClient = this.httpClient;
+                if (httpClient == null) {
+                    httpClient = HttpClient.newBuilder().connectTimeout(this.timeout).followRedirects(HttpClient.Redirect.NORMAL).build();
+                    this.httpClient = httpClient;
+                }
+            }
+        }
+
+        return httpClient;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.currency;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.Objects;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * {@link ExchangeRateClient} backed by a Spring {@link RestClient}, so the requests share the client configuration
+ * (timeouts, interceptors, observations) of the application.
+ */
+public class RestClientExchangeRateClient implements ExchangeRateClient {
+
+    private final RestClient restClient;
+
+    private final String endpoint;
+
+    public RestClientExchangeRateClient(RestClient restClient) {
+        this(restClient, DEFAULT_ENDPOINT);
+    }
+
+    /**
+     * @param restClient client used to perform the requests
+     * @param endpoint endpoint template, {@code %s} is replaced with the base currency
+     */
+    public RestClientExchangeRateClient(RestClient restClient, String endpoint) {
+        this.restClient = Objects.requireNonNull(restClient, "'restClient' is required");
+        this.endpoint = Objects.requireNonNull(endpoint, "'endpoint' is required");
+    }
+
+    @Override
+    public ExchangeRates fetch(String base) {
+        try {
+            JsonNode response = this.restClient.get().uri(String.format(this.endpoint, base)).retrieve().body(JsonNode.class);
+
+            return ExchangeRatesParser.parse(base, response);
+        } catch (RestClientException e) {
+            throw new CurrencyConversionException("Error fetching rates for " + base, e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.jfr;
+
+import io.temporal.activity.ActivityExecutionContext;
+import io.temporal.activity.ActivityInfo;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptor;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptorBase;
+import io.temporal.failure.ApplicationFailure;
+
+class ActivityEventsInboundCallsInterceptor extends ActivityInboundCallsInterceptorBase {
+
+    private ActivityInfo info;
+
+    ActivityEventsInboundCallsInterceptor(ActivityInboundCallsInterceptor next) {
+        super(next);
+    }
+
+    @Override
+    public void init(ActivityExecutionContext context) {
+        this.info = context.getInfo();
+        super.init(context);
+    }
+
+    @Override
+    public ActivityOutput execute(ActivityInput input) {
+        ActivityExecutionEvent event = new ActivityExecutionEvent();
+        if (!event.isEnabled()) {
+            return super.execute(input);
+        }
+
+        event.begin();
+        Throwable failure = null;
+        try {
+            return super.execute(input);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.activityType = this.info.getActivityType();
+                event.workflowType = this.info.getWorkflowType();
+                event.workflowId = this.info.getWorkflowId();
+                event.processId = ProcessIds.fromArguments(input.getArguments());
+                event.attempt = this.info.getAttempt();
+                event.failureType = failureType(failure);
+                event.commit();
+            }
+        }
+    }
+
+    private static String failureType(Throwable failure) {
+        if (failure == null) {
+            return null;
+        }
+
+        if (failure instanceof ApplicationFailure applicationFailure && applicationFailure.getType() != null) {
+            return applicationFailure.getType();
+        }
+
+        return failure.getClass().getSimpleName();
+    }
+}
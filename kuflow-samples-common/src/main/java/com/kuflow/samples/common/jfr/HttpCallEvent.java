@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.kuflow.samples.HttpCall")
+@Label("HTTP Call")
+@Description("Outbound HTTP call to KuFlow or to the exchange rate API")
+@Category({ "KuFlow Samples", "HTTP" })
+@StackTrace(false)
+public class HttpCallEvent extends jdk.jfr.Event {
+
+    public static final String TARGET_KUFLOW = "kuflow";
+
+    public static final String TARGET_EXCHANGE_RATE = "exchange-rate";
+
+    @Label("Target")
+    String target;
+
+    @Label("Method")
+    String method;
+
+    @Label("URL")
+    String url;
+
+    @Label("Process Id")
+    String processId;
+
+    @Label("Status")
+    int status;
+
+    @Label("Request Bytes")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Bytes")
+    @DataAmount
+    long responseBytes;
+
+    @Label("Failure Type")
+    String failureType;
+
+    /**
+     * Fill the request side of the event, only when it is going to be recorded.
+     */
+    public void request(String target, String method, String url, long requestBytes) {
+        if (!this.isEnabled()) {
+            return;
+        }
+
+        this.target = target;
+        this.method = method;
+        this.url = url;
+        this.processId = ProcessIds.fromUrl(url);
+        this.requestBytes = requestBytes;
+    }
+
+    /**
+     * Fill the response side of the event and commit it.
+     *
+     * @param status HTTP status, 0 if no response was received
+     * @param responseBytes response length, -1 if unknown
+     * @param failure failure raised by the call, if any
+     */
+    public void complete(int status, long responseBytes, Throwable failure) {
+        this.end();
+        if (!this.shouldCommit()) {
+            return;
+        }
+
+        this.status = status;
+        this.responseBytes = responseBytes;
+        this.failureType = failure != null ? failure.getClass().getSimpleName() : null;
+        this.commit();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.jfr;
+
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpPipelineCallContext;
+import com.azure.core.http.HttpPipelineNextPolicy;
+import com.azure.core.http.HttpPipelineNextSyncPolicy;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import reactor.core.publisher.Mono;
+
+/**
+ * KuFlow REST client pipeline policy emitting an {@link HttpCallEvent} for every call. Register it with
+ * {@code KuFlowRestClientBuilder.addPolicy}.
+ */
+public class KuFlowHttpEventsPolicy implements HttpPipelinePolicy {
+
+    @Override
+    public Mono<HttpResponse> process(HttpPipelineCallContext context, HttpPipelineNextPolicy next) {
+        if (!new HttpCallEvent().isEnabled()) {
+            return next.process();
+        }
+
+        return Mono.defer(() -> {
+            HttpCallEvent event = begin(context.getHttpRequest());
+
+            return next
+                .process()
+                .doOnSuccess(response -> complete(event, response, null))
+                .doOnError(failure -> complete(event, null, failure));
+        });
+    }
+
+    @Override
+    public HttpResponse processSync(HttpPipelineCallContext context, HttpPipelineNextSyncPolicy next) {
+        if (!new HttpCallEvent().isEnabled()) {
+            return next.processSync();
+        }
+
+        HttpCallEvent event = begin(context.getHttpRequest());
+        try {
+            HttpResponse response = next.processSync();
+            complete(event, response, null);
+
+            return response;
+        } catch (RuntimeException e) {
+            complete(event, null, e);
+            throw e;
+        }
+    }
+
+    private static HttpCallEvent begin(HttpRequest request) {
+        HttpCallEvent event = new HttpCallEvent();
+        event.begin();
+        event.request(
+            HttpCallEvent.TARGET_KUFLOW,
+            request.getHttpMethod().name(),
+            request.getUrl().toString(),
+            contentLength(request.getHeaders().getValue(HttpHeaderName.CONTENT_LENGTH))
+        );
+
+        return event;
+    }
+
+    private static void complete(HttpCallEvent event, HttpResponse response, Throwable failure) {
+        if (response == null) {
+            event.complete(0, -1, failure);
+        } else {
+            event.complete(response.getStatusCode(), contentLength(response.getHeaderValue(HttpHeaderName.CONTENT_LENGTH)), failure);
+        }
+    }
+
+    private static long contentLength(String value) {
+        if (value == null) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.jfr;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Best effort lookup of the KuFlow process an activity or a call belongs to, used to label the recorded events.
+ */
+final class ProcessIds {
+
+    private static final Pattern PATH_PROCESS_ID = Pattern.compile("/processes/([0-9a-fA-F-]{36})");
+
+    /**
+     * {@code getProcessId()} accessor of each class, looked up once. All the KuFlow activity requests have one.
+     */
+    private static final ClassValue<Optional<Method>> PROCESS_ID_GETTERS = new ClassValue<>() {
+        @Override
+        protected Optional<Method> computeValue(Class<?> type) {
+            try {
+                return Optional.of(type.getMethod("getProcessId"));
+            } catch (NoSuchMethodException e) {
+                return Optional.empty();
+            }
+        }
+    };
+
+    private ProcessIds() {
+        // Utility class
+    }
+
+    static String fromArguments(Object[] arguments) {
+        for (Object argument : arguments) {
+            if (argument == null) {
+                continue;
+            }
+
+            Optional<Method> getter = PROCESS_ID_GETTERS.get(argument.getClass());
+            if (getter.isPresent()) {
+                try {
+                    Object processId = getter.get().invoke(argument);
+                    if (processId != null) {
+                        return processId.toString();
+                    }
+                } catch (ReflectiveOperationException e) {
+                    // Not an accessor we can use, ignore it
+                }
+            }
+        }
+
+        return null;
+    }
+
+    static String fromUrl(String url) {
+        if (url == null) {
+            return null;
+        }
+
+        Matcher matcher = PATH_PROCESS_ID.matcher(url);
+
+        return matcher.find() ? matcher.group(1) : null;
+    }
+}
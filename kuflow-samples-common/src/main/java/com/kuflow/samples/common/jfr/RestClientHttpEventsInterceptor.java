@@ -0,0 +1,64 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.jfr;
+
+import java.io.IOException;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Spring {@code RestClient} interceptor emitting an {@link HttpCallEvent} for every call.
+ */
+public class RestClientHttpEventsInterceptor implements ClientHttpRequestInterceptor {
+
+    private final String target;
+
+    /**
+     * @param target name of the called service, ie: {@link HttpCallEvent#TARGET_EXCHANGE_RATE}
+     */
+    public RestClientHttpEventsInterceptor(String target) {
+        this.target = target;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        HttpCallEvent event = new HttpCallEvent();
+        if (!event.isEnabled()) {
+            return execution.execute(request, body);
+        }
+
+        event.begin();
+        event.request(this.target, request.getMethod().name(), request.getURI().toString(), body.length);
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            event.complete(response.getStatusCode().value(), response.getHeaders().getContentLength(), null);
+
+            return response;
+        } catch (IOException | RuntimeException e) {
+            event.complete(0, -1, e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.temporal.activity.ActivityExecutionContext;
+import io.temporal.activity.ActivityInfo;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptor;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptorBase;
+import io.temporal.failure.ApplicationFailure;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ActivityMetricsInboundCallsInterceptor extends ActivityInboundCallsInterceptorBase {
+
+    private static final String OUTCOME_SUCCESS = "success";
+
+    private static final String OUTCOME_FAILURE = "failure";
+
+    private static final String NONE = "none";
+
+    private final ActivityMetricsInterceptor interceptor;
+
+    private ActivityInfo info;
+
+    ActivityMetricsInboundCallsInterceptor(ActivityInboundCallsInterceptor next, ActivityMetricsInterceptor interceptor) {
+        super(next);
+        this.interceptor = interceptor;
+    }
+
+    @Override
+    public void init(ActivityExecutionContext context) {
+        this.info = context.getInfo();
+        super.init(context);
+    }
+
+    @Override
+    public ActivityOutput execute(ActivityInput input) {
+        Tags tags = Tags.of("activity_type", this.info.getActivityType(), "task_queue", this.info.getActivityTaskQueue());
+
+        DistributionSummary.builder(ActivityMetricsInterceptor.METRIC_ATTEMPT)
+            .description("Attempt number of the activity executions")
+            .tags(tags)
+            .register(this.interceptor.getMeterRegistry())
+            .record(this.info.getAttempt());
+
+        Timer.builder(ActivityMetricsInterceptor.METRIC_SCHEDULE_TO_START)
+            .description("Time the activities waited in the task queue")
+            .tags(tags)
+            .publishPercentileHistogram()
+            .register(this.interceptor.getMeterRegistry())
+            .record(Math.max(0, System.currentTimeMillis() - this.info.getCurrentAttemptScheduledTimestamp()), TimeUnit.MILLISECONDS);
+
+        AtomicInteger inFlight = this.interceptor.inFlight(tags);
+        inFlight.incrementAndGet();
+
+        long start = System.nanoTime();
+        String outcome = OUTCOME_SUCCESS;
+        String failureType = NONE;
+        try {
+            return super.execute(input);
+        } catch (RuntimeException | Error e) {
+            outcome = OUTCOME_FAILURE;
+            failureType = failureType(e);
+            throw e;
+        } finally {
+            inFlight.decrementAndGet();
+
+            Timer.builder(ActivityMetricsInterceptor.METRIC_EXECUTION)
+                .description("Execution time of the activities")
+                .tags(tags)
+                .tag("outcome", outcome)
+                .tag("failure_type", failureType)
+                .publishPercentileHistogram()
+                .register(this.interceptor.getMeterRegistry())
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String failureType(Throwable e) {
+        if (e instanceof ApplicationFailure applicationFailure && applicationFailure.getType() != null) {
+            return applicationFailure.getType();
+        }
+
+        return e.getClass().getSimpleName();
+    }
+}
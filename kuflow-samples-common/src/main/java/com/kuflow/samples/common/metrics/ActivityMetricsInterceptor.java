@@ -0,0 +1,75 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptor;
+import io.temporal.common.interceptors.WorkerInterceptorBase;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Worker interceptor recording, per activity type and task queue:
+ * <ul>
+ *   <li>{@value #METRIC_EXECUTION}: execution time histogram, tagged with the outcome and the failure type</li>
+ *   <li>{@value #METRIC_IN_FLIGHT}: activities being executed right now</li>
+ *   <li>{@value #METRIC_ATTEMPT}: attempt number of every execution, its maximum shows retry storms</li>
+ *   <li>{@value #METRIC_SCHEDULE_TO_START}: time the attempt waited in the task queue before a worker picked it up,
+ *   measured against the server clock</li>
+ * </ul>
+ * Activities completed asynchronously (heartbeating activities that do not complete on return) only account the time
+ * spent before returning.
+ */
+public class ActivityMetricsInterceptor extends WorkerInterceptorBase {
+
+    public static final String METRIC_EXECUTION = "kuflow.samples.activity.execution";
+
+    public static final String METRIC_IN_FLIGHT = "kuflow.samples.activity.in.flight";
+
+    public static final String METRIC_ATTEMPT = "kuflow.samples.activity.attempt";
+
+    public static final String METRIC_SCHEDULE_TO_START = "kuflow.samples.activity.schedule.to.start";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Tags, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public ActivityMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ActivityInboundCallsInterceptor interceptActivity(ActivityInboundCallsInterceptor next) {
+        return new ActivityMetricsInboundCallsInterceptor(next, this);
+    }
+
+    MeterRegistry getMeterRegistry() {
+        return this.meterRegistry;
+    }
+
+    AtomicInteger inFlight(Tags tags) {
+        return this.inFlight.computeIfAbsent(tags, key -> this.meterRegistry.gauge(METRIC_IN_FLIGHT, key, new AtomicInteger()));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.metrics;
+
+import com.kuflow.temporal.workflow.kuflow.model.WorkflowResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.temporal.common.interceptors.WorkflowInboundCallsInterceptor;
+import io.temporal.common.interceptors.WorkflowInboundCallsInterceptorBase;
+import io.temporal.common.interceptors.WorkflowOutboundCallsInterceptor;
+import io.temporal.workflow.Workflow;
+import io.temporal.workflow.unsafe.WorkflowUnsafe;
+
+class WorkflowTimingInboundCallsInterceptor extends WorkflowInboundCallsInterceptorBase {
+
+    private final MeterRegistry meterRegistry;
+
+    private final WorkflowTimings timings = new WorkflowTimings();
+
+    WorkflowTimingInboundCallsInterceptor(WorkflowInboundCallsInterceptor next, MeterRegistry meterRegistry) {
+        super(next);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void init(WorkflowOutboundCallsInterceptor outboundCalls) {
+        super.init(new WorkflowTimingOutboundCallsInterceptor(outboundCalls, this.timings));
+    }
+
+    @Override
+    public WorkflowOutput execute(WorkflowInput input) {
+        try {
+            WorkflowOutput output = super.execute(input);
+            if (output.getResult() instanceof WorkflowResponse response) {
+                String message = response.getMessage() != null ? response.getMessage() + ". " : "";
+                response.setMessage(message + "Time spent: " + this.timings.summary());
+            }
+
+            return output;
+        } finally {
+            if (!WorkflowUnsafe.isReplaying()) {
+                this.timings.record(this.meterRegistry, Workflow.getInfo().getWorkflowType());
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.temporal.common.interceptors.WorkerInterceptorBase;
+import io.temporal.common.interceptors.WorkflowInboundCallsInterceptor;
+
+/**
+ * Worker interceptor splitting the lifetime of every workflow into the time spent waiting for people (blocked in
+ * {@code Workflow.await}, ie: until a task completed signal arrives) and the time spent running activities.
+ * <p>
+ * Time is attributed to the process item definition code of the last process item the workflow created, so the wait
+ * for a {@code LOAN_APPLICATION} task and the activities run after it are accounted to {@code LOAN_APPLICATION}. When
+ * the workflow finishes:
+ * <ul>
+ *   <li>{@value #METRIC_TIME} is recorded once per code and kind ({@code human} or {@code machine})</li>
+ *   <li>a summary is appended to the message of the returned {@code WorkflowResponse}, if any</li>
+ * </ul>
+ * All the times are workflow times, so they are deterministic and the metrics are not recorded again on replay.
+ */
+public class WorkflowTimingInterceptor extends WorkerInterceptorBase {
+
+    public static final String METRIC_TIME = "kuflow.samples.workflow.time";
+
+    private final MeterRegistry meterRegistry;
+
+    public WorkflowTimingInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public WorkflowInboundCallsInterceptor interceptWorkflow(WorkflowInboundCallsInterceptor next) {
+        return new WorkflowTimingInboundCallsInterceptor(next, this.meterRegistry);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.metrics;
+
+import com.kuflow.temporal.activity.kuflow.model.ProcessItemCreateRequest;
+import io.temporal.common.interceptors.WorkflowOutboundCallsInterceptor;
+import io.temporal.common.interceptors.WorkflowOutboundCallsInterceptorBase;
+import io.temporal.workflow.Promise;
+import io.temporal.workflow.Workflow;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+class WorkflowTimingOutboundCallsInterceptor extends WorkflowOutboundCallsInterceptorBase {
+
+    private final WorkflowTimings timings;
+
+    WorkflowTimingOutboundCallsInterceptor(WorkflowOutboundCallsInterceptor next, WorkflowTimings timings) {
+        super(next);
+        this.timings = timings;
+    }
+
+    @Override
+    public void await(String reason, Supplier<Boolean> unblockCondition) {
+        long start = Workflow.currentTimeMillis();
+        try {
+            super.await(reason, unblockCondition);
+        } finally {
+            this.timings.addHumanTime(Workflow.currentTimeMillis() - start);
+        }
+    }
+
+    @Override
+    public boolean await(Duration timeout, String reason, Supplier<Boolean> unblockCondition) {
+        long start = Workflow.currentTimeMillis();
+        try {
+            return super.await(timeout, reason, unblockCondition);
+        } finally {
+            this.timings.addHumanTime(Workflow.currentTimeMillis() - start);
+        }
+    }
+
+    @Override
+    public <R> ActivityOutput<R> executeActivity(ActivityInput<R> input) {
+        for (Object arg : input.getArgs()) {
+            if (arg instanceof ProcessItemCreateRequest request && request.getProcessItemDefinitionCode() != null) {
+                this.timings.enterProcessItem(request.getProcessItemDefinitionCode());
+            }
+        }
+
+        String processItemDefinitionCode = this.timings.getProcessItemDefinitionCode();
+        long start = Workflow.currentTimeMillis();
+
+        ActivityOutput<R> output = super.executeActivity(input);
+        Promise<R> result = output
+            .getResult()
+            .handle((value, failure) -> {
+                this.timings.addMachineTime(processItemDefinitionCode, Workflow.currentTimeMillis() - start);
+                if (failure != null) {
+                    throw failure;
+                }
+
+                return value;
+            });
+
+        return new ActivityOutput<>(output.getActivityId(), result);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Time accumulated by a single workflow execution. Only accessed from the workflow threads, which Temporal runs one at
+ * a time.
+ */
+class WorkflowTimings {
+
+    static final String NO_PROCESS_ITEM = "NONE";
+
+    private final Map<String, Breakdown> breakdowns = new LinkedHashMap<>();
+
+    private String processItemDefinitionCode = NO_PROCESS_ITEM;
+
+    String getProcessItemDefinitionCode() {
+        return this.processItemDefinitionCode;
+    }
+
+    void enterProcessItem(String processItemDefinitionCode) {
+        this.processItemDefinitionCode = processItemDefinitionCode;
+    }
+
+    void addHumanTime(long millis) {
+        this.breakdown(this.processItemDefinitionCode).humanMillis += millis;
+    }
+
+    void addMachineTime(String processItemDefinitionCode, long millis) {
+        this.breakdown(processItemDefinitionCode).machineMillis += millis;
+    }
+
+    /**
+     * @return ie: {@code LOAN_APPLICATION human=PT2M machine=PT0.42S, APPROVE_LOAN human=PT1H machine=PT0.3S}
+     */
+    String summary() {
+        return this.breakdowns.entrySet()
+            .stream()
+            .map(entry ->
+                "%s human=%s machine=%s".formatted(
+                    entry.getKey(),
+                    Duration.ofMillis(entry.getValue().humanMillis),
+                    Duration.ofMillis(entry.getValue().machineMillis)
+                )
+            )
+            .collect(Collectors.joining(", "));
+    }
+
+    void record(MeterRegistry meterRegistry, String workflowType) {
+        this.breakdowns.forEach((code, breakdown) -> {
+            timer(meterRegistry, workflowType, code, "human").record(Duration.ofMillis(breakdown.humanMillis));
+            timer(meterRegistry, workflowType, code, "machine").record(Duration.ofMillis(breakdown.machineMillis));
+        });
+    }
+
+    private Breakdown breakdown(String processItemDefinitionCode) {
+        return this.breakdowns.computeIfAbsent(processItemDefinitionCode, key -> new Breakdown());
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String workflowType, String processItemDefinitionCode, String kind) {
+        return Timer.builder(WorkflowTimingInterceptor.METRIC_TIME)
+            .description("Time of the workflows spent waiting for people (human) or running activities (machine)")
+            .tag("workflow_type", workflowType)
+            .tag("process_item_definition_code", processItemDefinitionCode)
+            .tag("kind", kind)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    private static final class Breakdown {
+
+        private long humanMillis;
+
+        private long machineMillis;
+    }
+}
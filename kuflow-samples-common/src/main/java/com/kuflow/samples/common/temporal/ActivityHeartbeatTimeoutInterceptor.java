@@ -0,0 +1,87 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.temporal;
+
+import io.temporal.activity.ActivityOptions;
+import io.temporal.common.interceptors.WorkerInterceptorBase;
+import io.temporal.common.interceptors.WorkflowInboundCallsInterceptor;
+import io.temporal.common.interceptors.WorkflowInboundCallsInterceptorBase;
+import io.temporal.common.interceptors.WorkflowOutboundCallsInterceptor;
+import io.temporal.common.interceptors.WorkflowOutboundCallsInterceptorBase;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Worker interceptor setting the heartbeat timeout of some activity types, whatever the options of the workflow stub
+ * scheduling them. It lets the worker configuration decide how fast an activity that stopped heartbeating is failed,
+ * without a workflow change: the activity options are not part of the history checked on replay.
+ */
+public class ActivityHeartbeatTimeoutInterceptor extends WorkerInterceptorBase {
+
+    private final Map<String, Duration> heartbeatTimeouts;
+
+    /**
+     * @param heartbeatTimeouts heartbeat timeout by activity type, ie: {@code KuFlow_UIVision_ExecuteUIVisionMacro}
+     */
+    public ActivityHeartbeatTimeoutInterceptor(Map<String, Duration> heartbeatTimeouts) {
+        this.heartbeatTimeouts = Map.copyOf(heartbeatTimeouts);
+    }
+
+    @Override
+    public WorkflowInboundCallsInterceptor interceptWorkflow(WorkflowInboundCallsInterceptor next) {
+        return new WorkflowInboundCallsInterceptorBase(next) {
+            @Override
+            public void init(WorkflowOutboundCallsInterceptor outboundCalls) {
+                super.init(new HeartbeatTimeoutOutboundCallsInterceptor(outboundCalls));
+            }
+        };
+    }
+
+    private final class HeartbeatTimeoutOutboundCallsInterceptor extends WorkflowOutboundCallsInterceptorBase {
+
+        HeartbeatTimeoutOutboundCallsInterceptor(WorkflowOutboundCallsInterceptor next) {
+            super(next);
+        }
+
+        @Override
+        public <R> ActivityOutput<R> executeActivity(ActivityInput<R> input) {
+            Duration heartbeatTimeout = ActivityHeartbeatTimeoutInterceptor.this.heartbeatTimeouts.get(input.getActivityName());
+            if (heartbeatTimeout == null) {
+                return super.executeActivity(input);
+            }
+
+            ActivityOptions options = ActivityOptions.newBuilder(input.getOptions()).setHeartbeatTimeout(heartbeatTimeout).build();
+
+            return super.executeActivity(
+                new ActivityInput<>(
+                    input.getActivityName(),
+                    input.getResultClass(),
+                    input.getResultType(),
+                    input.getArgs(),
+                    options,
+                    input.getHeader()
+                )
+            );
+        }
+    }
+}
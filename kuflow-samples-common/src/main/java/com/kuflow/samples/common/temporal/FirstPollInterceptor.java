@@ -0,0 +1,114 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.temporal;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.MethodDescriptor;
+import io.temporal.api.workflowservice.v1.WorkflowServiceGrpc;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * gRPC interceptor logging the time from process start to the first workflow task poll, which is when the worker
+ * becomes useful, and the resident memory at that point (on Linux). Optionally exits the process right after, to
+ * train the AppCDS archive and to benchmark startup.
+ */
+public class FirstPollInterceptor implements ClientInterceptor {
+
+    public static final String STARTUP_MESSAGE_PREFIX = "First workflow task poll after ";
+
+    public static final String RSS_MESSAGE_PREFIX = "RSS ";
+
+    /**
+     * Program argument asking the worker to exit after the first workflow task poll.
+     */
+    public static final String ARG_EXIT_AFTER_FIRST_POLL = "--exit-after-first-poll";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FirstPollInterceptor.class);
+
+    private static final String POLL_WORKFLOW_TASK_QUEUE = WorkflowServiceGrpc.getPollWorkflowTaskQueueMethod().getFullMethodName();
+
+    private final AtomicBoolean polled = new AtomicBoolean();
+
+    private final boolean exitAfterFirstPoll;
+
+    public FirstPollInterceptor(boolean exitAfterFirstPoll) {
+        this.exitAfterFirstPoll = exitAfterFirstPoll;
+    }
+
+    @Override
+    public <R, S> ClientCall<R, S> interceptCall(MethodDescriptor<R, S> method, CallOptions callOptions, Channel next) {
+        if (POLL_WORKFLOW_TASK_QUEUE.equals(method.getFullMethodName()) && this.polled.compareAndSet(false, true)) {
+            this.onFirstPoll();
+        }
+
+        return next.newCall(method, callOptions);
+    }
+
+    private void onFirstPoll() {
+        long startedAt = ProcessHandle.current()
+            .info()
+            .startInstant()
+            .map(Instant::toEpochMilli)
+            .orElseGet(() -> ManagementFactory.getRuntimeMXBean().getStartTime());
+
+        long elapsed = System.currentTimeMillis() - startedAt;
+        long rss = residentSetSizeKiB();
+        if (rss >= 0) {
+            LOGGER.info("{}{} ms, {}{} MiB", STARTUP_MESSAGE_PREFIX, elapsed, RSS_MESSAGE_PREFIX, rss / 1024);
+        } else {
+            LOGGER.info("{}{} ms", STARTUP_MESSAGE_PREFIX, elapsed);
+        }
+
+        if (this.exitAfterFirstPoll) {
+            // Exit from another thread, the shutdown hooks wait for the poller calling us to finish
+            Thread exit = new Thread(() -> System.exit(0), "exit-after-first-poll");
+            exit.start();
+        }
+    }
+
+    /**
+     * @return resident set size of the process in KiB, or -1 where {@code /proc} is not available
+     */
+    private static long residentSetSizeKiB() {
+        try (Stream<String> lines = Files.lines(Path.of("/proc/self/status"))) {
+            return lines
+                .filter(line -> line.startsWith("VmRSS:"))
+                .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(-1);
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+}
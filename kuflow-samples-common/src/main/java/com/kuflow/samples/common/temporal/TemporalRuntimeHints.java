@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.temporal;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.core.ResolvableType;
+
+/**
+ * Native image hints for what the Temporal SDK reaches through reflection and that a static analysis cannot see:
+ * workflow and activity implementations are instantiated and invoked reflectively, activity stubs are JDK proxies of
+ * the activity interfaces, and the arguments and results of workflow, signal and activity methods are (de)serialized
+ * with Jackson.
+ */
+public final class TemporalRuntimeHints {
+
+    private static final BindingReflectionHintsRegistrar BINDING_REGISTRAR = new BindingReflectionHintsRegistrar();
+
+    private TemporalRuntimeHints() {
+        // Utility class
+    }
+
+    /**
+     * Register a workflow implementation, its workflow and signal interfaces and the types they exchange.
+     *
+     * @param hints hints being contributed
+     * @param workflowImplementation workflow implementation registered in the worker
+     */
+    public static void registerWorkflow(RuntimeHints hints, Class<?> workflowImplementation) {
+        hints
+            .reflection()
+            .registerType(
+                workflowImplementation,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS,
+                MemberCategory.DECLARED_FIELDS
+            );
+
+        registerInterfaces(hints, workflowImplementation);
+    }
+
+    /**
+     * Register an activity interface called from workflows, so its stub can be created, and the types it exchanges.
+     *
+     * @param hints hints being contributed
+     * @param activityInterface activity interface used from workflows
+     */
+    public static void registerActivityStub(RuntimeHints hints, Class<?> activityInterface) {
+        hints.proxies().registerJdkProxy(activityInterface);
+
+        registerInterface(hints, activityInterface);
+    }
+
+    /**
+     * Register an activity implementation registered in the worker, with its interfaces and the types they exchange.
+     *
+     * @param hints hints being contributed
+     * @param activityImplementation activity implementation registered in the worker
+     */
+    public static void registerActivityImplementation(RuntimeHints hints, Class<?> activityImplementation) {
+        hints.reflection().registerType(activityImplementation, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        registerInterfaces(hints, activityImplementation);
+    }
+
+    private static void registerInterfaces(RuntimeHints hints, Class<?> type) {
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        collectInterfaces(type, interfaces);
+
+        interfaces.forEach(candidate -> registerInterface(hints, candidate));
+    }
+
+    private static void collectInterfaces(Class<?> type, Set<Class<?>> interfaces) {
+        for (Class<?> candidate : type.getInterfaces()) {
+            if (interfaces.add(candidate)) {
+                collectInterfaces(candidate, interfaces);
+            }
+        }
+        if (type.getSuperclass() != null) {
+            collectInterfaces(type.getSuperclass(), interfaces);
+        }
+    }
+
+    private static void registerInterface(RuntimeHints hints, Class<?> type) {
+        hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+
+            for (int i = 0; i < method.getParameterCount(); i++) {
+                BINDING_REGISTRAR.registerReflectionHints(hints.reflection(), ResolvableType.forMethodParameter(method, i).getType());
+            }
+            if (method.getReturnType() != void.class) {
+                BINDING_REGISTRAR.registerReflectionHints(hints.reflection(), ResolvableType.forMethodReturnType(method).getType());
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.temporal;
+
+import io.temporal.activity.ActivityExecutionContext;
+import io.temporal.client.ActivityCompletionException;
+import io.temporal.common.interceptors.ActivityExecutionContextBase;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptor;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptorBase;
+import io.temporal.common.interceptors.WorkerInterceptorBase;
+import io.temporal.worker.WorkerFactory;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Worker interceptor tracking the activities being executed, to drain a worker before shutting it down.
+ *
+ * <p>{@link #drain} stops polling for new tasks at once and lets the activities in flight finish, heartbeating them
+ * meanwhile with their last details so they are neither timed out nor retried elsewhere. The activities still running
+ * when the budget is exhausted are interrupted and handed off: Temporal retries them in another worker. A rolling
+ * deploy whose grace period is longer than the budget does not execute twice an activity shorter than it.
+ */
+public class WorkerDrainInterceptor extends WorkerInterceptorBase {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkerDrainInterceptor.class);
+
+    /**
+     * Heartbeat interval of the activities without a heartbeat timeout.
+     */
+    private static final Duration DEFAULT_HEARTBEAT_INTERVAL = Duration.ofSeconds(30);
+
+    private static final Duration TICK = Duration.ofSeconds(1);
+
+    private final Set<InFlightActivity> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public ActivityInboundCallsInterceptor interceptActivity(ActivityInboundCallsInterceptor next) {
+        return new ActivityInboundCallsInterceptorBase(next) {
+            private InFlightActivity activity;
+
+            @Override
+            public void init(ActivityExecutionContext context) {
+                this.activity = new InFlightActivity(context);
+                super.init(this.activity);
+            }
+
+            @Override
+            public ActivityOutput execute(ActivityInput input) {
+                WorkerDrainInterceptor.this.inFlight.add(this.activity);
+                try {
+                    return super.execute(input);
+                } finally {
+                    WorkerDrainInterceptor.this.inFlight.remove(this.activity);
+                }
+            }
+        };
+    }
+
+    /**
+     * @return activities being executed right now
+     */
+    public int getInFlight() {
+        return this.inFlight.size();
+    }
+
+    /**
+     * Stop polling and wait for the activities in flight to finish, up to the budget.
+     *
+     * @param workerFactory factory of the workers to drain, it is shut down
+     * @param budget maximum time to wait for the activities in flight
+     * @return activities that finished during the drain and activities handed off to other workers
+     */
+    public DrainResult drain(WorkerFactory workerFactory, Duration budget) {
+        long start = System.nanoTime();
+        long deadline = start + budget.toNanos();
+        int inFlightAtStart = this.inFlight.size();
+
+        LOGGER.info("Draining worker: polling stopped, waiting up to {} for {} activities in flight", budget, inFlightAtStart);
+        // Suspend instead of shutting down: Temporal rejects the heartbeats of a worker being shut down
+        workerFactory.suspendPolling();
+
+        try {
+            while (!this.inFlight.isEmpty() && System.nanoTime() < deadline) {
+                this.inFlight.forEach(InFlightActivity::heartbeatIfStale);
+                TimeUnit.NANOSECONDS.sleep(Math.min(TICK.toNanos(), Math.max(1, deadline - System.nanoTime())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int handedOff = this.inFlight.size();
+        if (handedOff > 0) {
+            workerFactory.shutdownNow();
+        } else {
+            workerFactory.shutdown();
+        }
+
+        DrainResult result = new DrainResult(
+            Math.max(0, inFlightAtStart - handedOff),
+            handedOff,
+            Duration.ofNanos(System.nanoTime() - start)
+        );
+        if (handedOff > 0) {
+            LOGGER.warn(
+                "Worker drained in {}: {} activities finished, {} handed off to other workers",
+                result.elapsed(),
+                result.finished(),
+                handedOff
+            );
+        } else {
+            LOGGER.info("Worker drained in {}: {} activities finished", result.elapsed(), result.finished());
+        }
+
+        return result;
+    }
+
+    /**
+     * @param finished activities in flight when the drain started that finished within the budget
+     * @param handedOff activities interrupted when the budget was exhausted, Temporal retries them in another worker
+     * @param elapsed time the drain took
+     */
+    public record DrainResult(int finished, int handedOff, Duration elapsed) {}
+
+    /**
+     * Execution context remembering the last heartbeat of the activity, so the drain repeats its details instead of
+     * overwriting them. Until the activity heartbeats in this attempt, the details of the previous attempt are repeated,
+     * as they are the progress the activity resumes from.
+     */
+    private static final class InFlightActivity extends ActivityExecutionContextBase {
+
+        private final long heartbeatIntervalNanos;
+
+        private volatile boolean heartbeated;
+
+        private volatile Object lastDetails;
+
+        private volatile long lastHeartbeat = System.nanoTime();
+
+        InFlightActivity(ActivityExecutionContext next) {
+            super(next);
+
+            Duration heartbeatTimeout = next.getInfo().getHeartbeatTimeout();
+            this.heartbeatIntervalNanos = heartbeatTimeout == null || heartbeatTimeout.isZero()
+                ? DEFAULT_HEARTBEAT_INTERVAL.toNanos()
+                : heartbeatTimeout.toNanos() / 2;
+        }
+
+        @Override
+        public <V> void heartbeat(V details) throws ActivityCompletionException {
+            this.lastDetails = details;
+            this.heartbeated = true;
+            this.lastHeartbeat = System.nanoTime();
+            super.heartbeat(details);
+        }
+
+        void heartbeatIfStale() {
+            if (System.nanoTime() - this.lastHeartbeat < this.heartbeatIntervalNanos) {
+                return;
+            }
+
+            try {
+                this.heartbeat(this.heartbeated ? this.lastDetails : this.previousDetails());
+            } catch (ActivityCompletionException e) {
+                // The activity sees the cancellation or timeout on its own next heartbeat
+                LOGGER.debug("Heartbeat of activity {} rejected while draining", this.getInfo().getActivityId(), e);
+            }
+        }
+
+        /**
+         * @return details of the last heartbeat of the previous attempt, read as a generic value so they are written back
+         *     with the same content whatever their type
+         */
+        private Object previousDetails() {
+            return this.getHeartbeatDetails(Object.class).orElse(null);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.temporal;
+
+import io.temporal.common.interceptors.WorkerInterceptor;
+import io.temporal.worker.WorkerFactoryOptions;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Helpers to register worker interceptors without dropping the ones already configured.
+ */
+public final class WorkerInterceptors {
+
+    private WorkerInterceptors() {
+        // Utility class
+    }
+
+    /**
+     * Add the given interceptors around the ones already present in the builder, the first given one is the outermost.
+     * Temporal wraps each interceptor of the options with the next one, so the last one of the array is the outermost
+     * and the given interceptors are added to it in reverse order.
+     *
+     * @param builder worker factory options being configured
+     * @param interceptors interceptors to add, from the outermost to the innermost
+     */
+    public static void append(WorkerFactoryOptions.Builder builder, WorkerInterceptor... interceptors) {
+        WorkerInterceptor[] current = builder.build().getWorkerInterceptors();
+        WorkerInterceptor[] existing = current != null ? current : new WorkerInterceptor[0];
+
+        List<WorkerInterceptor> innermostFirst = Arrays.asList(interceptors.clone());
+        Collections.reverse(innermostFirst);
+
+        builder.setWorkerInterceptors(
+            Stream.concat(Arrays.stream(existing), innermostFirst.stream()).toArray(WorkerInterceptor[]::new)
+        );
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.common.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.opentracingshim.OpenTracingShim;
+import io.temporal.common.interceptors.WorkerInterceptor;
+import io.temporal.common.interceptors.WorkflowClientInterceptor;
+import io.temporal.opentracing.OpenTracingClientInterceptor;
+import io.temporal.opentracing.OpenTracingOptions;
+import io.temporal.opentracing.OpenTracingSpanContextCodec;
+import io.temporal.opentracing.OpenTracingWorkerInterceptor;
+
+/**
+ * Temporal interceptors propagating the OpenTelemetry context through workflows, signals and activities.
+ * <p>
+ * Temporal instruments OpenTracing, so an OpenTracing shim is put on top of the OpenTelemetry instance. The span
+ * context travels in the Temporal headers, then the spans of the workflow and its activities share the trace of the
+ * call that started or signaled the workflow.
+ */
+public final class TemporalTracing {
+
+    private TemporalTracing() {
+        // Utility class
+    }
+
+    public static WorkflowClientInterceptor clientInterceptor(OpenTelemetry openTelemetry) {
+        return new OpenTracingClientInterceptor(options(openTelemetry));
+    }
+
+    public static WorkerInterceptor workerInterceptor(OpenTelemetry openTelemetry) {
+        return new OpenTracingWorkerInterceptor(options(openTelemetry));
+    }
+
+    private static OpenTracingOptions options(OpenTelemetry openTelemetry) {
+        return OpenTracingOptions.newBuilder()
+            .setTracer(OpenTracingShim.createTracerShim(openTelemetry))
+            .setSpanContextCodec(OpenTracingSpanContextCodec.TEXT_MAP_CODEC)
+            .build();
+    }
+}
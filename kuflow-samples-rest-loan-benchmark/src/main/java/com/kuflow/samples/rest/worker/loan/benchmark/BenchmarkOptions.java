@@ -0,0 +1,97 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.rest.worker.loan.benchmark;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Benchmark options, given as {@code --key=value} arguments.
+ *
+ * @param rate loans started per second (open-loop, independent of the responses)
+ * @param duration measured duration of the run
+ * @param warmup duration of the run before measuring starts
+ * @param concurrency maximum number of in-flight loans, as many more wait for a slot and the rest are dropped
+ * @param thinkTime pause between the webhooks of the same loan, as a user completing a task would
+ * @param approvalRatio ratio of loans whose approval task is answered with {@code YES}
+ * @param kuflowLatency latency added to every KuFlow API call
+ * @param kuflowJitter random jitter added on top of the KuFlow API latency
+ * @param currencyLatency latency added to every exchange rate call
+ * @param currencyJitter random jitter added on top of the exchange rate latency
+ */
+public record BenchmarkOptions(
+    int rate,
+    Duration duration,
+    Duration warmup,
+    int concurrency,
+    Duration thinkTime,
+    double approvalRatio,
+    Duration kuflowLatency,
+    Duration kuflowJitter,
+    Duration currencyLatency,
+    Duration currencyJitter
+) {
+    private static final Set<String> KEYS = Set.of(
+        "rate",
+        "duration",
+        "warmup",
+        "concurrency",
+        "think-time",
+        "approval-ratio",
+        "kuflow-latency",
+        "kuflow-jitter",
+        "currency-latency",
+        "currency-jitter"
+    );
+
+    public static BenchmarkOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Invalid argument '%s', expected --key=value".formatted(arg));
+            }
+
+            String key = arg.substring(2, arg.indexOf('='));
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unknown option '%s', expected one of %s".formatted(key, KEYS));
+            }
+
+            values.put(key, arg.substring(arg.indexOf('=') + 1));
+        }
+
+        return new BenchmarkOptions(
+            Integer.parseInt(values.getOrDefault("rate", "20")),
+            Duration.parse(values.getOrDefault("duration", "PT60S")),
+            Duration.parse(values.getOrDefault("warmup", "PT10S")),
+            Integer.parseInt(values.getOrDefault("concurrency", "64")),
+            Duration.parse(values.getOrDefault("think-time", "PT0S")),
+            Double.parseDouble(values.getOrDefault("approval-ratio", "0.8")),
+            Duration.parse(values.getOrDefault("kuflow-latency", "PT0.03S")),
+            Duration.parse(values.getOrDefault("kuflow-jitter", "PT0.01S")),
+            Duration.parse(values.getOrDefault("currency-latency", "PT0.05S")),
+            Duration.parse(values.getOrDefault("currency-jitter", "PT0.02S"))
+        );
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.rest.worker.loan.benchmark;
+
+import com.kuflow.samples.rest.worker.loan.SampleRestWorkerLoanApp;
+import com.kuflow.samples.rest.worker.loan.benchmark.generator.LatencyRecorder;
+import com.kuflow.samples.rest.worker.loan.benchmark.generator.WebhookLoadGenerator;
+import com.kuflow.samples.rest.worker.loan.benchmark.stub.CurrencyApiStub;
+import com.kuflow.samples.rest.worker.loan.benchmark.stub.KuFlowApiStub;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Run the REST loan worker against in-process KuFlow and exchange rate stubs and drive it with webhooks.
+ * <p>
+ * Example: {@code mvn -pl kuflow-samples-rest-loan-benchmark exec:java -Dexec.args="--rate=50 --duration=PT2M"}
+ */
+public class LoanWebhookBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoanWebhookBenchmark.class);
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkOptions options = BenchmarkOptions.parse(args);
+
+        try (
+            KuFlowApiStub kuFlowApiStub = new KuFlowApiStub(options.kuflowLatency(), options.kuflowJitter());
+            CurrencyApiStub currencyApiStub = new CurrencyApiStub(options.currencyLatency(), options.currencyJitter())
+        ) {
+            kuFlowApiStub.start();
+            currencyApiStub.start();
+
+            ConfigurableApplicationContext context = SpringApplication.run(
+                SampleRestWorkerLoanApp.class,
+                "--server.port=0",
+                "--kuflow.api.endpoint=" + kuFlowApiStub.getBaseUrl(),
+                "--kuflow.api.client-id=benchmark",
+                "--kuflow.api.client-secret=benchmark",
+                "--kuflow.api.allow-insecure-connection=true",
+                "--application.currency.endpoint=" + currencyApiStub.getEndpoint(),
+                "--logging.level.com.kuflow.samples.rest.worker.loan=WARN"
+            );
+
+            try {
+                String port = context.getEnvironment().getRequiredProperty("local.server.port");
+                URI webhookUri = URI.create("http://127.0.0.1:" + port + "/webhooks");
+
+                WebhookLoadGenerator generator = new WebhookLoadGenerator(webhookUri, kuFlowApiStub, options);
+                generator.run();
+
+                report(options, generator);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static void report(BenchmarkOptions options, WebhookLoadGenerator generator) {
+        double seconds = options.duration().toMillis() / 1000.0;
+        StringBuilder report = new StringBuilder();
+        report.append(
+            "%n%-45s %10s %10s %8s %10s %10s %10s %10s%n".formatted(
+                "event",
+                "count",
+                "req/s",
+                "errors",
+                "p50 ms",
+                "p99 ms",
+                "p99.9 ms",
+                "max ms"
+            )
+        );
+
+        for (Map.Entry<String, LatencyRecorder.Summary> entry : generator.getRecorder().summarize().entrySet()) {
+            LatencyRecorder.Summary summary = entry.getValue();
+            report.append(
+                "%-45s %10d %10.1f %7.2f%% %10.1f %10.1f %10.1f %10.1f%n".formatted(
+                    entry.getKey(),
+                    summary.count(),
+                    summary.count() / seconds,
+                    summary.count() == 0 ? 0.0 : 100.0 * summary.errors() / summary.count(),
+                    millis(summary.p50Nanos()),
+                    millis(summary.p99Nanos()),
+                    millis(summary.p999Nanos()),
+                    millis(summary.maxNanos())
+                )
+            );
+        }
+        report.append("Loans dropped by the generator: %d%n".formatted(generator.getDroppedLoans()));
+
+        LOGGER.info(
+            "Benchmark finished (rate={}/s, concurrency={}, duration={}){}",
+            options.rate(),
+            options.concurrency(),
+            options.duration(),
+            report
+        );
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.rest.worker.loan.benchmark.generator;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collect the latency and outcome of every request, grouped by a name.
+ * <p>
+ * Samples are kept raw (a {@code long} each) and sorted once when the summary is built, which is exact and cheap
+ * enough for the few hundred thousand requests of a benchmark run.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    private volatile boolean recording;
+
+    public void start() {
+        this.recording = true;
+    }
+
+    public void stop() {
+        this.recording = false;
+    }
+
+    public void record(String name, long latencyNanos, boolean success) {
+        if (!this.recording) {
+            return;
+        }
+
+        this.samples.computeIfAbsent(name, key -> new Samples()).add(latencyNanos, success);
+    }
+
+    /**
+     * Count a failed request that has no latency, as one never sent, without adding a sample to the percentiles.
+     */
+    public void recordError(String name) {
+        if (!this.recording) {
+            return;
+        }
+
+        this.samples.computeIfAbsent(name, key -> new Samples()).addError();
+    }
+
+    /**
+     * @return summary of each name plus an {@code ALL} entry aggregating every sample
+     */
+    public Map<String, Summary> summarize() {
+        Map<String, Summary> summaries = new TreeMap<>();
+        Samples all = new Samples();
+        this.samples.forEach((name, nameSamples) -> {
+            summaries.put(name, nameSamples.summarize());
+            all.addAll(nameSamples);
+        });
+        summaries.put("ALL", all.summarize());
+
+        return summaries;
+    }
+
+    /**
+     * @param count number of requests, including the failed ones without latency
+     * @param errors number of failed requests
+     * @param p50Nanos median latency
+     * @param p99Nanos 99th percentile latency
+     * @param p999Nanos 99.9th percentile latency
+     * @param maxNanos maximum latency
+     */
+    public record Summary(long count, long errors, long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {}
+
+    private static final class Samples {
+
+        private long[] latencies = new long[1024];
+
+        private int size;
+
+        private long errors;
+
+        private long errorsWithoutLatency;
+
+        synchronized void add(long latencyNanos, boolean success) {
+            if (this.size == this.latencies.length) {
+                this.latencies = Arrays.copyOf(this.latencies, this.latencies.length * 2);
+            }
+
+            this.latencies[this.size++] = latencyNanos;
+            if (!success) {
+                this.errors++;
+            }
+        }
+
+        synchronized void addError() {
+            this.errors++;
+            this.errorsWithoutLatency++;
+        }
+
+        synchronized void addAll(Samples other) {
+            synchronized (other) {
+                for (int i = 0; i < other.size; i++) {
+                    this.add(other.latencies[i], true);
+                }
+                this.errors += other.errors;
+                this.errorsWithoutLatency += other.errorsWithoutLatency;
+            }
+        }
+
+        synchronized Summary summarize() {
+            long[] sorted = Arrays.copyOf(this.latencies, this.size);
+            Arrays.sort(sorted);
+
+            return new Summary(
+                this.size + this.errorsWithoutLatency,
+                this.errors,
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.99),
+                percentile(sorted, 0.999),
+                sorted.length > 0 ? sorted[sorted.length - 1] : 0
+            );
+        }
+
+        private static long percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+}
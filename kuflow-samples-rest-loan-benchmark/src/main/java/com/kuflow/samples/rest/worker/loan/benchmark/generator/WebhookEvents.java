@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.rest.worker.loan.benchmark.generator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Build the webhook payloads sent by KuFlow.
+ */
+public final class WebhookEvents {
+
+    public static final String TYPE_PROCESS_STATE_CHANGED = "PROCESS.STATE_CHANGED";
+
+    public static final String TYPE_PROCESS_ITEM_TASK_STATE_CHANGED = "PROCESS_ITEM.TASK_STATE_CHANGED";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private WebhookEvents() {
+        // Utility class
+    }
+
+    public static String processStateChanged(UUID processId, String processState) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("processId", processId.toString());
+        data.put("processState", processState);
+
+        return event(TYPE_PROCESS_STATE_CHANGED, data);
+    }
+
+    public static String processItemTaskStateChanged(
+        UUID processId,
+        UUID processItemId,
+        String processItemDefinitionCode,
+        String processItemState
+    ) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("processId", processId.toString());
+        data.put("processItemId", processItemId.toString());
+        data.put("processItemType", "TASK");
+        data.put("processItemState", processItemState);
+        data.put("processItemDefinitionCode", processItemDefinitionCode);
+
+        return event(TYPE_PROCESS_ITEM_TASK_STATE_CHANGED, data);
+    }
+
+    private static String event(String type, Map<String, Object> data) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", UUID.randomUUID().toString());
+        event.put("type", type);
+        event.put("timestamp", OffsetDateTime.now().toString());
+        event.put("data", data);
+
+        try {
+            return OBJECT_MAPPER.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.rest.worker.loan.benchmark.generator;
+
+import com.kuflow.samples.rest.worker.loan.benchmark.BenchmarkOptions;
+import com.kuflow.samples.rest.worker.loan.benchmark.stub.KuFlowApiStub;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drive the loan webhooks of the REST worker as KuFlow would.
+ * <p>
+ * Loans are started at a fixed rate (open-loop), so a slow worker shows up as growing latency instead of a lower
+ * request rate. The latency of the first webhook of each loan is measured from the moment the loan was due to start,
+ * which accounts for the time spent waiting for a free slot (coordinated omission).
+ */
+public class WebhookLoadGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebhookLoadGenerator.class);
+
+    private static final String TASK_LOAN_APPLICATION = "LOAN_APPLICATION";
+
+    private static final String TASK_APPROVE_LOAN = "APPROVE_LOAN";
+
+    private static final List<String> CURRENCIES = List.of("EUR", "USD", "GBP");
+
+    private final URI webhookUri;
+
+    private final KuFlowApiStub kuFlowApiStub;
+
+    private final BenchmarkOptions options;
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+    private final AtomicLong droppedLoans = new AtomicLong();
+
+    public WebhookLoadGenerator(URI webhookUri, KuFlowApiStub kuFlowApiStub, BenchmarkOptions options) {
+        this.webhookUri = webhookUri;
+        this.kuFlowApiStub = kuFlowApiStub;
+        this.options = options;
+    }
+
+    public LatencyRecorder getRecorder() {
+        return this.recorder;
+    }
+
+    public long getDroppedLoans() {
+        return this.droppedLoans.get();
+    }
+
+    public void run() throws InterruptedException {
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / this.options.rate();
+        long startNanos = System.nanoTime();
+        AtomicLong sequence = new AtomicLong();
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        // As many loans as in flight may wait for a slot, the rest are dropped so an overloaded worker shows up as drops
+        // instead of an ever growing backlog
+        ExecutorService workers = new ThreadPoolExecutor(
+            this.options.concurrency(),
+            this.options.concurrency(),
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(this.options.concurrency()),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        try {
+            scheduler.scheduleAtFixedRate(
+                () -> {
+                    long intendedStartNanos = startNanos + sequence.getAndIncrement() * periodNanos;
+                    try {
+                        workers.execute(() -> this.runLoan(intendedStartNanos));
+                    } catch (RejectedExecutionException e) {
+                        this.droppedLoans.incrementAndGet();
+                    }
+                },
+                0,
+                periodNanos,
+                TimeUnit.NANOSECONDS
+            );
+
+            LOGGER.info("Warming up for {}", this.options.warmup());
+            Thread.sleep(this.options.warmup().toMillis());
+
+            LOGGER.info("Measuring for {}", this.options.duration());
+            this.recorder.start();
+            Thread.sleep(this.options.duration().toMillis());
+            this.recorder.stop();
+        } finally {
+            scheduler.shutdownNow();
+            workers.shutdown();
+            if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                workers.shutdownNow();
+            }
+        }
+    }
+
+    private void runLoan(long intendedStartNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID processId = UUID.randomUUID();
+        boolean approved = random.nextDouble() < this.options.approvalRatio();
+
+        this.kuFlowApiStub.registerProcess(
+            processId,
+            UUID.randomUUID(),
+            Map.of(
+                TASK_LOAN_APPLICATION,
+                Map.of(
+                    "FIRST_NAME",
+                    "Jane",
+                    "LAST_NAME",
+                    "Doe",
+                    "CURRENCY",
+                    CURRENCIES.get(random.nextInt(CURRENCIES.size())),
+                    "AMOUNT",
+                    random.nextInt(500, 10_000)
+                ),
+                TASK_APPROVE_LOAN,
+                Map.of("APPROVAL", approved ? "YES" : "NO")
+            )
+        );
+
+        try {
+            String processStarted = WebhookEvents.processStateChanged(processId, "RUNNING");
+            if (!this.send(WebhookEvents.TYPE_PROCESS_STATE_CHANGED, processStarted, intendedStartNanos)) {
+                return;
+            }
+
+            if (!this.completeTask(processId, TASK_LOAN_APPLICATION)) {
+                return;
+            }
+
+            // Only loans above the approval threshold get an approval task
+            if (this.kuFlowApiStub.findProcessItemId(processId, TASK_APPROVE_LOAN).isPresent()) {
+                this.completeTask(processId, TASK_APPROVE_LOAN);
+            }
+        } finally {
+            this.kuFlowApiStub.unregisterProcess(processId);
+        }
+    }
+
+    private boolean completeTask(UUID processId, String processItemDefinitionCode) {
+        this.thinkTime();
+
+        String name = WebhookEvents.TYPE_PROCESS_ITEM_TASK_STATE_CHANGED + " " + processItemDefinitionCode;
+        Optional<UUID> processItemId = this.kuFlowApiStub.findProcessItemId(processId, processItemDefinitionCode);
+        if (processItemId.isEmpty()) {
+            this.recorder.recordError(name);
+
+            return false;
+        }
+
+        String taskCompleted = WebhookEvents.processItemTaskStateChanged(
+            processId,
+            processItemId.get(),
+            processItemDefinitionCode,
+            "COMPLETED"
+        );
+
+        return this.send(name, taskCompleted, System.nanoTime());
+    }
+
+    private boolean send(String name, String payload, long startNanos) {
+        HttpRequest request = HttpRequest.newBuilder(this.webhookUri)
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(payload))
+            .build();
+
+        boolean success;
+        try {
+            HttpResponse<Void> response = this.httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            success = response.statusCode() >= 200 && response.statusCode() < 300;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            success = false;
+        } catch (Exception e) {
+            LOGGER.debug("Webhook {} failed", name, e);
+            success = false;
+        }
+
+        this.recorder.record(name, System.nanoTime() - startNanos, success);
+
+        return success;
+    }
+
+    private void thinkTime() {
+        if (this.options.thinkTime().isZero()) {
+            return;
+        }
+
+        try {
+            Thread.sleep(this.options.thinkTime().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.rest.worker.loan.benchmark.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for the currency API. Tables have the shape and size of the real ones: the supported currencies plus a
+ * few hundred filler entries.
+ */
+public class CurrencyApiStub extends StubServer {
+
+    private static final Pattern PATH_CURRENCY = Pattern.compile(".*/currencies/([a-z]+)\\.json$");
+
+    private static final Map<String, Double> RATES_TO_EUR = Map.of("eur", 1.0, "usd", 0.92, "gbp", 1.17);
+
+    private static final int FILLER_CURRENCIES = 300;
+
+    public CurrencyApiStub(Duration latency, Duration jitter) {
+        super(latency, jitter);
+    }
+
+    /**
+     * @return endpoint template to configure in the worker, {@code %s} is replaced with the base currency
+     */
+    public String getEndpoint() {
+        return this.getBaseUrl() + "/currencies/%s.json";
+    }
+
+    @Override
+    protected Response handle(HttpExchange exchange) {
+        Matcher matcher = PATH_CURRENCY.matcher(exchange.getRequestURI().getPath());
+        if (!"GET".equals(exchange.getRequestMethod()) || !matcher.matches()) {
+            return Response.status(404);
+        }
+
+        String base = matcher.group(1);
+        Double baseToEur = RATES_TO_EUR.get(base);
+        if (baseToEur == null) {
+            return Response.status(404);
+        }
+
+        Map<String, Object> table = new LinkedHashMap<>();
+        RATES_TO_EUR.forEach((target, targetToEur) -> table.put(target, baseToEur / targetToEur));
+        for (int i = 0; i < FILLER_CURRENCIES; i++) {
+            table.put("x" + i, 1.0 + i / 1000.0);
+        }
+
+        return Response.ok(Map.of("date", "2024-01-01", base, table));
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.rest.worker.loan.benchmark.stub;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for the subset of the KuFlow REST API used by the loan REST worker.
+ * <p>
+ * Routes are matched by suffix, so the API version prefix of the endpoint does not matter. Processes must be
+ * registered with {@link #registerProcess} before their webhooks are sent; the task data of the items created by the
+ * worker is taken from that registration, as if a user had filled the forms.
+ */
+public class KuFlowApiStub extends StubServer {
+
+    private static final String UUID_REGEX = "([0-9a-fA-F-]{36})";
+
+    private static final Pattern PATH_AUTHENTICATIONS = Pattern.compile(".*/authentications$");
+
+    private static final Pattern PATH_PROCESS = Pattern.compile(".*/processes/" + UUID_REGEX + "$");
+
+    private static final Pattern PATH_PROCESS_COMPLETE = Pattern.compile(".*/processes/" + UUID_REGEX + "/~actions/complete$");
+
+    private static final Pattern PATH_PROCESS_ITEMS = Pattern.compile(".*/process-items$");
+
+    private static final Pattern PATH_PROCESS_ITEM = Pattern.compile(".*/process-items/" + UUID_REGEX + "$");
+
+    private static final Pattern PATH_PROCESS_ITEM_ASSIGN = Pattern.compile(".*/process-items/" + UUID_REGEX + "/~actions/task-assign$");
+
+    private final Map<UUID, StubProcess> processes = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Map<String, Object>> processItems = new ConcurrentHashMap<>();
+
+    public KuFlowApiStub(Duration latency, Duration jitter) {
+        super(latency, jitter);
+    }
+
+    /**
+     * @param processId process identifier
+     * @param initiatorId principal that started the process
+     * @param taskData data of the tasks keyed by process item definition code, merged with the data sent by the worker
+     */
+    public void registerProcess(UUID processId, UUID initiatorId, Map<String, Map<String, Object>> taskData) {
+        this.processes.put(processId, new StubProcess(processId, initiatorId, taskData, new ConcurrentHashMap<>()));
+    }
+
+    /**
+     * @param processId process identifier
+     * @param processItemDefinitionCode definition code of the item
+     * @return the id of the item created by the worker, if any
+     */
+    public Optional<UUID> findProcessItemId(UUID processId, String processItemDefinitionCode) {
+        StubProcess process = this.processes.get(processId);
+        if (process == null) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(process.processItemIds().get(processItemDefinitionCode));
+    }
+
+    public void unregisterProcess(UUID processId) {
+        StubProcess process = this.processes.remove(processId);
+        if (process != null) {
+            process.processItemIds().values().forEach(this.processItems::remove);
+        }
+    }
+
+    @Override
+    protected Response handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+
+        Matcher matcher;
+        if ("POST".equals(method) && PATH_AUTHENTICATIONS.matcher(path).matches()) {
+            return Response.created(this.authentication());
+        }
+        if ("POST".equals(method) && (matcher = PATH_PROCESS_COMPLETE.matcher(path)).matches()) {
+            return this.completeProcess(UUID.fromString(matcher.group(1)));
+        }
+        if ("GET".equals(method) && (matcher = PATH_PROCESS.matcher(path)).matches()) {
+            return this.retrieveProcess(UUID.fromString(matcher.group(1)));
+        }
+        if ("POST".equals(method) && PATH_PROCESS_ITEMS.matcher(path).matches()) {
+            return this.createProcessItem(this.readBody(exchange));
+        }
+        if ("POST".equals(method) && (matcher = PATH_PROCESS_ITEM_ASSIGN.matcher(path)).matches()) {
+            return this.assignProcessItemTask(UUID.fromString(matcher.group(1)), this.readBody(exchange));
+        }
+        if ("GET".equals(method) && (matcher = PATH_PROCESS_ITEM.matcher(path)).matches()) {
+            return this.retrieveProcessItem(UUID.fromString(matcher.group(1)));
+        }
+
+        return Response.status(404);
+    }
+
+    private Map<String, Object> authentication() {
+        Map<String, Object> authentication = new LinkedHashMap<>();
+        authentication.put("id", UUID.randomUUID().toString());
+        authentication.put("type", "ENGINE_TOKEN");
+        authentication.put("token", "benchmark-token");
+        authentication.put("expiredAt", OffsetDateTime.now().plusDays(1).toString());
+
+        return authentication;
+    }
+
+    private Response retrieveProcess(UUID processId) {
+        StubProcess process = this.processes.get(processId);
+        if (process == null) {
+            return Response.status(404);
+        }
+
+        return Response.ok(this.process(process, "RUNNING"));
+    }
+
+    private Response completeProcess(UUID processId) {
+        StubProcess process = this.processes.get(processId);
+        if (process == null) {
+            return Response.status(404);
+        }
+
+        return Response.ok(this.process(process, "COMPLETED"));
+    }
+
+    private Response createProcessItem(JsonNode params) {
+        UUID processId = UUID.fromString(params.path("processId").asText());
+        StubProcess process = this.processes.get(processId);
+        if (process == null) {
+            return Response.status(404);
+        }
+
+        String processItemDefinitionCode = params.path("processItemDefinitionCode").asText();
+        UUID processItemId = params.hasNonNull("id") ? UUID.fromString(params.get("id").asText()) : UUID.randomUUID();
+
+        Map<String, Object> data = new HashMap<>();
+        JsonNode paramsData = params.path("task").path("data").path("value");
+        if (paramsData.isObject()) {
+            data.putAll(OBJECT_MAPPER.convertValue(paramsData, new TypeReference<Map<String, Object>>() {}));
+        }
+        data.putAll(process.taskData().getOrDefault(processItemDefinitionCode, Map.of()));
+
+        Map<String, Object> task = new LinkedHashMap<>();
+        task.put("state", "READY");
+        task.put("data", Map.of("valid", true, "value", data));
+
+        Map<String, Object> processItem = new ConcurrentHashMap<>();
+        processItem.put("objectType", "PROCESS_ITEM");
+        processItem.put("id", processItemId.toString());
+        processItem.put("type", params.path("type").asText("TASK"));
+        processItem.put("processId", processId.toString());
+        processItem.put("processItemDefinitionCode", processItemDefinitionCode);
+        if (params.hasNonNull("ownerId")) {
+            processItem.put("ownerId", params.get("ownerId").asText());
+        }
+        processItem.put("task", task);
+
+        this.processItems.put(processItemId, processItem);
+        process.processItemIds().put(processItemDefinitionCode, processItemId);
+
+        return Response.created(processItem);
+    }
+
+    private Response retrieveProcessItem(UUID processItemId) {
+        Map<String, Object> processItem = this.processItems.get(processItemId);
+        if (processItem == null) {
+            return Response.status(404);
+        }
+
+        return Response.ok(processItem);
+    }
+
+    private Response assignProcessItemTask(UUID processItemId, JsonNode params) {
+        Map<String, Object> processItem = this.processItems.get(processItemId);
+        if (processItem == null) {
+            return Response.status(404);
+        }
+
+        processItem.put("ownerId", params.path("ownerId").asText());
+
+        return Response.ok(processItem);
+    }
+
+    private Map<String, Object> process(StubProcess process, String state) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("objectType", "PROCESS");
+        response.put("id", process.processId().toString());
+        response.put("state", state);
+        response.put("processDefinitionId", process.processId().toString());
+        response.put("initiatorId", process.initiatorId().toString());
+
+        return response;
+    }
+
+    private JsonNode readBody(HttpExchange exchange) throws IOException {
+        try (InputStream inputStream = exchange.getRequestBody()) {
+            return OBJECT_MAPPER.readTree(inputStream);
+        }
+    }
+
+    private record StubProcess(
+        UUID processId,
+        UUID initiatorId,
+        Map<String, Map<String, Object>> taskData,
+        Map<String, UUID> processItemIds
+    ) {}
+}
@@ -0,0 +1,149 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.rest.worker.loan.benchmark.stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local HTTP server that answers every request after an injected latency.
+ * <p>
+ * The latency of each response is {@code latency} plus a uniform random jitter in {@code [0, jitter)}, which is enough
+ * to model a remote API without depending on the network.
+ */
+public abstract class StubServer implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StubServer.class);
+
+    protected static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Duration latency;
+
+    private final Duration jitter;
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    protected StubServer(Duration latency, Duration jitter) {
+        this.latency = latency;
+        this.jitter = jitter;
+        this.executor = Executors.newCachedThreadPool();
+        try {
+            this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to create the stub server", e);
+        }
+
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/", this::handleExchange);
+    }
+
+    public void start() {
+        this.server.start();
+        LOGGER.info("{} listening on {}", this.getClass().getSimpleName(), this.getBaseUrl());
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + this.server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * @param exchange the request to answer
+     * @return the response to send
+     */
+    protected abstract Response handle(HttpExchange exchange) throws IOException;
+
+    private void handleExchange(HttpExchange exchange) throws IOException {
+        try {
+            this.sleep();
+
+            Response response;
+            try {
+                response = this.handle(exchange);
+            } catch (RuntimeException e) {
+                LOGGER.error("Error handling {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+                response = Response.status(500);
+            }
+
+            byte[] body = response.body() != null ? OBJECT_MAPPER.writeValueAsBytes(response.body()) : new byte[0];
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=" + StandardCharsets.UTF_8.name());
+            exchange.sendResponseHeaders(response.status(), body.length > 0 ? body.length : -1);
+            if (body.length > 0) {
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(body);
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void sleep() {
+        long nanos = this.latency.toNanos();
+        if (!this.jitter.isZero()) {
+            nanos += ThreadLocalRandom.current().nextLong(this.jitter.toNanos());
+        }
+        if (nanos <= 0) {
+            return;
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    protected record Response(int status, Object body) {
+        public static Response ok(Object body) {
+            return new Response(200, body);
+        }
+
+        public static Response created(Object body) {
+            return new Response(201, body);
+        }
+
+        public static Response status(int status) {
+            return new Response(status, null);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.rest.worker.loan;
+
+import com.kuflow.samples.common.currency.CurrencyConverter;
+import com.kuflow.samples.common.currency.ExchangeRateCache;
+import com.kuflow.samples.common.currency.RestClientExchangeRateClient;
+import com.kuflow.samples.common.jfr.HttpCallEvent;
+import com.kuflow.samples.common.jfr.RestClientHttpEventsInterceptor;
+import com.kuflow.samples.rest.worker.loan.SampleRestWorkerLoanProperties.CurrencyProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+@Configuration(proxyBeanMethods = false)
+public class CurrencyConfiguration {
+
+    private final SampleRestWorkerLoanProperties sampleRestWorkerLoanProperties;
+
+    public CurrencyConfiguration(SampleRestWorkerLoanProperties sampleRestWorkerLoanProperties) {
+        this.sampleRestWorkerLoanProperties = sampleRestWorkerLoanProperties;
+    }
+
+    @Bean
+    public CurrencyConverter currencyConverter(RestClient.Builder restClientBuilder) {
+        CurrencyProperties currencyProperties = this.sampleRestWorkerLoanProperties.getCurrency();
+
+        RestClient restClient = restClientBuilder
+            .requestInterceptor(new RestClientHttpEventsInterceptor(HttpCallEvent.TARGET_EXCHANGE_RATE))
+            .build();
+        RestClientExchangeRateClient client = new RestClientExchangeRateClient(restClient, currencyProperties.getEndpoint());
+
+        return new CurrencyConverter(new ExchangeRateCache(client, currencyProperties.getTtl()));
+    }
+}
@@ -32,9 +32,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.core.env.Environment;
 
 @SpringBootApplication
+@EnableConfigurationProperties({ SampleRestWorkerLoanProperties.class })
 public class SampleRestWorkerLoanApp implements CommandLineRunner {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SampleRestWorkerLoanApp.class);
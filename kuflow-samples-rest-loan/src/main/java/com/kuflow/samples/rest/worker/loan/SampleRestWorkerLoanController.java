@@ -28,7 +28,6 @@ import com.kuflow.rest.model.JsonValue;
 import com.kuflow.rest.model.Process;
 import com.kuflow.rest.model.ProcessItem;
 import com.kuflow.rest.model.ProcessItemCreateParams;
-import com.kuflow.rest.model.ProcessItemTaskAssignParams;
 import com.kuflow.rest.model.ProcessItemTaskCreateParams;
 import com.kuflow.rest.model.ProcessItemTaskState;
 import com.kuflow.rest.model.ProcessItemType;
@@ -40,19 +39,25 @@ import com.kuflow.rest.model.WebhookEventProcessStateChanged;
 import com.kuflow.rest.model.WebhookEventProcessStateChangedData;
 import com.kuflow.rest.operation.ProcessItemOperations;
 import com.kuflow.rest.operation.ProcessOperations;
+import com.kuflow.samples.common.currency.CurrencyConverter;
+import com.kuflow.samples.common.jfr.WebhookHandlingEvent;
+import com.kuflow.samples.rest.worker.loan.cache.ProcessAttributes;
+import com.kuflow.samples.rest.worker.loan.cache.ProcessAttributesCache;
 import com.kuflow.samples.rest.worker.loan.util.CastUtils;
 import java.math.BigDecimal;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestClient;
 
 @RestController
 @RequestMapping("/webhooks")
@@ -68,19 +73,30 @@ public class SampleRestWorkerLoanController {
 
     private static final String TASK_CODE_NOTIFICATION_OF_LOAN_REJECTION = "NOTIFICATION_REJECTION";
 
-    private final RestClient restClient;
-
     private final KuFlowRestClient kuFlowRestClient;
 
     private final ProcessOperations processOperations;
 
     private final ProcessItemOperations processItemOperations;
 
-    public SampleRestWorkerLoanController(RestClient.Builder restClientBuilder, KuFlowRestClient kuFlowRestClient) {
-        this.restClient = restClientBuilder.build();
+    private final CurrencyConverter currencyConverter;
+
+    private final ProcessAttributesCache processAttributesCache;
+
+    private final Executor executor;
+
+    public SampleRestWorkerLoanController(
+        KuFlowRestClient kuFlowRestClient,
+        CurrencyConverter currencyConverter,
+        ProcessAttributesCache processAttributesCache,
+        AsyncTaskExecutor applicationTaskExecutor
+    ) {
         this.kuFlowRestClient = kuFlowRestClient;
         this.processOperations = kuFlowRestClient.getProcessOperations();
         this.processItemOperations = kuFlowRestClient.getProcessItemOperations();
+        this.currencyConverter = currencyConverter;
+        this.processAttributesCache = processAttributesCache;
+        this.executor = applicationTaskExecutor;
     }
 
     @PostMapping
@@ -89,6 +105,20 @@ public class SampleRestWorkerLoanController {
 
         WebhookEvent event = this.kuFlowRestClient.parseWebhookEvent(payload);
 
+        WebhookHandlingEvent handlingEvent = new WebhookHandlingEvent();
+        handlingEvent.begin();
+        Throwable failure = null;
+        try {
+            this.handleEvent(event);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            handlingEvent.complete(String.valueOf(event.getType()), this.getProcessId(event), failure);
+        }
+    }
+
+    private void handleEvent(WebhookEvent event) {
         try {
             if (event instanceof WebhookEventProcessStateChanged) {
                 this.handleEventProcessStateChanged(CastUtils.cast(event));
@@ -112,9 +142,27 @@ public class SampleRestWorkerLoanController {
         }
     }
 
+    private UUID getProcessId(WebhookEvent event) {
+        if (event instanceof WebhookEventProcessStateChanged processStateChanged) {
+            return processStateChanged.getData().getProcessId();
+        } else if (event instanceof WebhookEventProcessItemTaskStateChanged processItemTaskStateChanged) {
+            return processItemTaskStateChanged.getData().getProcessId();
+        }
+
+        return null;
+    }
+
     private void handleEventProcessStateChanged(WebhookEventProcessStateChanged event) {
         WebhookEventProcessStateChangedData data = event.getData();
         if (ProcessState.RUNNING.equals(data.getProcessState())) {
+            // The initiator is needed when the process finishes, fetch it while the application task is created. It only
+            // warms the cache, a failure must not fail the event because it would be redelivered and create the task again.
+            this.resolveProcessAttributes(data.getProcessId()).exceptionally(e -> {
+                LOGGER.warn("Attributes of process {} not prefetched, they are retrieved when needed", data.getProcessId(), e);
+
+                return null;
+            });
+
             this.createProcessItemTaskLoanApplication(data);
         }
     }
@@ -136,25 +184,25 @@ public class SampleRestWorkerLoanController {
     }
 
     private void handleProcessItemApproveLoan(WebhookEventProcessItemTaskStateChangedData data) {
+        CompletableFuture<ProcessAttributes> process = this.resolveProcessAttributes(data.getProcessId());
+
         ProcessItem processItemApproveLoan = this.processItemOperations.retrieveProcessItem(data.getProcessItemId());
 
         String authorizedField = processItemApproveLoan.getTask().getData().getValue().get("APPROVAL").toString();
 
-        ProcessItem processItemNotification;
+        UUID ownerId = this.join(process).initiatorId();
         if ("YES".equals(authorizedField)) {
-            processItemNotification = this.createProcessItemTaskNotificationOfLoanGranted(data);
+            this.createProcessItemTaskNotificationOfLoanGranted(data, ownerId);
         } else {
-            processItemNotification = this.createProcessItemTaskNotificationOfLoanGrantedRejection(data);
+            this.createProcessItemTaskNotificationOfLoanGrantedRejection(data, ownerId);
         }
 
-        Process process = this.processOperations.retrieveProcess(data.getProcessId());
-
-        this.assignProcessItemTaskToProcessInitiator(processItemNotification, process);
-
-        this.processOperations.completeProcess(data.getProcessId());
+        this.completeProcess(data.getProcessId());
     }
 
     private void handleProcessItemLoanApplication(WebhookEventProcessItemTaskStateChangedData data) {
+        CompletableFuture<ProcessAttributes> process = this.resolveProcessAttributes(data.getProcessId());
+
         ProcessItem processItemLoanApplication = this.processItemOperations.retrieveProcessItem(data.getProcessItemId());
 
         String currencyField = processItemLoanApplication.getTask().getData().getValue().get("CURRENCY").toString();
@@ -165,13 +213,9 @@ public class SampleRestWorkerLoanController {
         if (amountEUR.compareTo(BigDecimal.valueOf(5000)) > 0) {
             this.createProcessItemTaskApproveLoan(processItemLoanApplication, amountEUR);
         } else {
-            ProcessItem processItemNotification = this.createProcessItemTaskNotificationOfLoanGranted(data);
-
-            Process process = this.processOperations.retrieveProcess(data.getProcessId());
-
-            this.assignProcessItemTaskToProcessInitiator(processItemNotification, process);
+            this.createProcessItemTaskNotificationOfLoanGranted(data, this.join(process).initiatorId());
 
-            this.processOperations.completeProcess(data.getProcessId());
+            this.completeProcess(data.getProcessId());
         }
     }
 
@@ -203,64 +247,75 @@ public class SampleRestWorkerLoanController {
         this.processItemOperations.createProcessItem(params);
     }
 
-    private ProcessItem createProcessItemTaskNotificationOfLoanGrantedRejection(WebhookEventProcessItemTaskStateChangedData data) {
+    private void createProcessItemTaskNotificationOfLoanGrantedRejection(WebhookEventProcessItemTaskStateChangedData data, UUID ownerId) {
         ProcessItemCreateParams processItemNotificationRejection = new ProcessItemCreateParams();
         processItemNotificationRejection.setProcessId(data.getProcessId());
         processItemNotificationRejection.setType(ProcessItemType.TASK);
         processItemNotificationRejection.setProcessItemDefinitionCode(TASK_CODE_NOTIFICATION_OF_LOAN_REJECTION);
+        processItemNotificationRejection.setOwnerId(ownerId);
 
-        return this.processItemOperations.createProcessItem(processItemNotificationRejection);
+        this.processItemOperations.createProcessItem(processItemNotificationRejection);
     }
 
-    private ProcessItem createProcessItemTaskNotificationOfLoanGranted(WebhookEventProcessItemTaskStateChangedData data) {
+    private void createProcessItemTaskNotificationOfLoanGranted(WebhookEventProcessItemTaskStateChangedData data, UUID ownerId) {
         ProcessItemCreateParams params = new ProcessItemCreateParams();
         params.setType(ProcessItemType.TASK);
         params.setProcessId(data.getProcessId());
         params.setProcessItemDefinitionCode(TASK_CODE_NOTIFICATION_OF_LOAN_GRANTED);
+        params.setOwnerId(ownerId);
 
-        return this.processItemOperations.createProcessItem(params);
+        this.processItemOperations.createProcessItem(params);
     }
 
-    private void assignProcessItemTaskToProcessInitiator(ProcessItem processItemNotification, Process process) {
-        ProcessItemTaskAssignParams params = new ProcessItemTaskAssignParams();
-        params.setOwnerId(process.getInitiatorId());
+    /**
+     * Resolve the attributes of the process from the cache or, on a miss, retrieve them in background so the caller
+     * can issue its own requests meanwhile.
+     *
+     * @param processId process identifier
+     * @return the attributes of the process
+     */
+    private CompletableFuture<ProcessAttributes> resolveProcessAttributes(UUID processId) {
+        ProcessAttributes cached = this.processAttributesCache.getIfPresent(processId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
 
-        this.processItemOperations.assignProcessItemTask(processItemNotification.getId(), params);
+        return CompletableFuture.supplyAsync(
+            () -> this.processAttributesCache.get(processId, this::retrieveProcessAttributes),
+            this.executor
+        );
     }
 
-    private BigDecimal convertToEuros(String currencyField, String amountField) {
-        BigDecimal amountEUR = new BigDecimal(amountField != null ? amountField : "0");
-        if ("EUR".equals(currencyField)) {
-            return amountEUR;
-        } else {
-            return this.convert(amountEUR, currencyField, "EUR");
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw e;
         }
     }
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
-    private BigDecimal convert(BigDecimal amount, String from, String to) {
-        String fromTransformed = this.transformCurrencyCode(from);
-        String toTransformed = this.transformCurrencyCode(to);
-        String endpoint = String.format(
-            "https://cdn.jsdelivr.net/npm/@fawazahmed0/currency-api@latest/v1/currencies/%s.json",
-            fromTransformed
-        );
+    private ProcessAttributes retrieveProcessAttributes(UUID processId) {
+        Process process = this.processOperations.retrieveProcess(processId);
 
-        ParameterizedTypeReference<HashMap<String, Object>> responseType = new ParameterizedTypeReference<>() {};
-        HashMap<String, Object> response = this.restClient.get().uri(endpoint).retrieve().body(responseType);
+        return ProcessAttributes.of(process);
+    }
 
-        Map<String, Double> conversionTable = (Map) response.get(fromTransformed);
-        Double conversion = conversionTable.get(toTransformed);
+    private void completeProcess(UUID processId) {
+        this.processOperations.completeProcess(processId);
 
-        return amount.multiply(BigDecimal.valueOf(conversion));
+        this.processAttributesCache.evict(processId);
     }
 
-    private String transformCurrencyCode(String currency) {
-        return switch (currency) {
-            case "EUR" -> "eur";
-            case "USD" -> "usd";
-            case "GBP" -> "gbp";
-            default -> throw new RuntimeException("Unsupported currency " + currency);
-        };
+    private BigDecimal convertToEuros(String currencyField, String amountField) {
+        BigDecimal amountEUR = new BigDecimal(amountField != null ? amountField : "0");
+        if ("EUR".equals(currencyField)) {
+            return amountEUR;
+        } else {
+            return this.currencyConverter.convert(amountEUR, currencyField, "EUR");
+        }
     }
 }
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.rest.worker.loan;
+
+import com.kuflow.samples.common.currency.ExchangeRateCache;
+import com.kuflow.samples.common.currency.ExchangeRateClient;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
+public class SampleRestWorkerLoanProperties {
+
+    private final CurrencyProperties currency = new CurrencyProperties();
+
+    private final ProcessCacheProperties processCache = new ProcessCacheProperties();
+
+    private final TracingProperties tracing = new TracingProperties();
+
+    public CurrencyProperties getCurrency() {
+        return this.currency;
+    }
+
+    public ProcessCacheProperties getProcessCache() {
+        return this.processCache;
+    }
+
+    public TracingProperties getTracing() {
+        return this.tracing;
+    }
+
+    public static final class CurrencyProperties {
+
+        /**
+         * Endpoint of the conversion tables, {@code %s} is replaced with the base currency.
+         */
+        private String endpoint = ExchangeRateClient.DEFAULT_ENDPOINT;
+
+        /**
+         * Time a conversion table is reused before fetching it again.
+         */
+        private Duration ttl = ExchangeRateCache.DEFAULT_TTL;
+
+        public String getEndpoint() {
+            return this.endpoint;
+        }
+
+        public void setEndpoint(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public Duration getTtl() {
+            return this.ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static final class ProcessCacheProperties {
+
+        /**
+         * Maximum number of processes kept in the cache.
+         */
+        private int maxSize = 10_000;
+
+        /**
+         * Time the attributes of a process are kept since they were cached.
+         */
+        private Duration ttl = Duration.ofHours(24);
+
+        public int getMaxSize() {
+            return this.maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getTtl() {
+            return this.ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static final class TracingProperties {
+
+        /**
+         * File the spans are appended to, one JSON document per line. Meant for local testing, the OTLP exporter is
+         * configured with {@code management.otlp.tracing.endpoint}.
+         */
+        private String file;
+
+        public String getFile() {
+            return this.file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.rest.worker.loan.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded, short-lived cache of {@link ProcessAttributes} keyed by process id.
+ * <p>
+ * When the cache is full the least recently used process is evicted. Entries also expire after a time-to-live,
+ * so a process that never completes does not stay in memory forever.
+ */
+public class ProcessAttributesCache {
+
+    private final int maxSize;
+
+    private final Duration ttl;
+
+    private final Clock clock;
+
+    private final Map<UUID, Entry> entries;
+
+    public ProcessAttributesCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    public ProcessAttributesCache(int maxSize, Duration ttl, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Invalid maxSize: must be > 0, got " + maxSize);
+        }
+
+        this.maxSize = maxSize;
+        this.ttl = Objects.requireNonNull(ttl, "'ttl' is required");
+        this.clock = Objects.requireNonNull(clock, "'clock' is required");
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return this.size() > ProcessAttributesCache.this.maxSize;
+            }
+        };
+    }
+
+    public void put(ProcessAttributes attributes) {
+        Entry entry = new Entry(attributes, this.clock.instant().plus(this.ttl));
+        synchronized (this.entries) {
+            this.entries.put(attributes.processId(), entry);
+        }
+    }
+
+    /**
+     * @param processId process identifier
+     * @return the cached attributes of the process, or {@code null} if it is not cached or its entry expired
+     */
+    public ProcessAttributes getIfPresent(UUID processId) {
+        Instant now = this.clock.instant();
+        synchronized (this.entries) {
+            Entry entry = this.entries.get(processId);
+            if (entry != null && now.isBefore(entry.expiresAt())) {
+                return entry.attributes();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Return the cached attributes of the process or load them with the given function.
+     * <p>
+     * The loader runs outside the cache lock, so a slow lookup does not block the handlers of other processes.
+     *
+     * @param processId process identifier
+     * @param loader function used when the process is not cached or its entry expired
+     * @return attributes of the process
+     */
+    public ProcessAttributes get(UUID processId, Function<UUID, ProcessAttributes> loader) {
+        ProcessAttributes cached = this.getIfPresent(processId);
+        if (cached != null) {
+            return cached;
+        }
+
+        ProcessAttributes attributes = loader.apply(processId);
+        this.put(attributes);
+
+        return attributes;
+    }
+
+    public void evict(UUID processId) {
+        synchronized (this.entries) {
+            this.entries.remove(processId);
+        }
+    }
+
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    private record Entry(ProcessAttributes attributes, Instant expiresAt) {}
+}
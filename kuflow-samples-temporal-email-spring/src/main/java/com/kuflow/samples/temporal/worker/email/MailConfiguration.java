@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email;
+
+import com.kuflow.samples.temporal.worker.email.SampleEngineWorkerEmailProperties.OutboxProperties;
+import com.kuflow.samples.temporal.worker.email.mail.EmailTemplateRenderer;
+import com.kuflow.samples.temporal.worker.email.mail.PooledJavaMailSender;
+import com.kuflow.samples.temporal.worker.email.outbox.EmailOutbox;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Properties;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(MailProperties.class)
+public class MailConfiguration {
+
+    /**
+     * Replaces the mail sender of Spring Boot, so the KuFlow email activity sends through the pool as well. It is
+     * configured from the same {@code spring.mail} properties, except SSL bundles and JNDI sessions.
+     */
+    @Bean
+    public PooledJavaMailSender mailSender(
+        MailProperties mailProperties,
+        SampleEngineWorkerEmailProperties sampleEngineWorkerEmailProperties,
+        MeterRegistry meterRegistry
+    ) {
+        PooledJavaMailSender mailSender = new PooledJavaMailSender(sampleEngineWorkerEmailProperties.getSmtpPool(), meterRegistry);
+        mailSender.setHost(mailProperties.getHost());
+        if (mailProperties.getPort() != null) {
+            mailSender.setPort(mailProperties.getPort());
+        }
+        mailSender.setUsername(mailProperties.getUsername());
+        mailSender.setPassword(mailProperties.getPassword());
+        mailSender.setProtocol(mailProperties.getProtocol());
+        if (mailProperties.getDefaultEncoding() != null) {
+            mailSender.setDefaultEncoding(mailProperties.getDefaultEncoding().name());
+        } else {
+            mailSender.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        }
+        if (!mailProperties.getProperties().isEmpty()) {
+            Properties javaMailProperties = new Properties();
+            javaMailProperties.putAll(mailProperties.getProperties());
+            mailSender.setJavaMailProperties(javaMailProperties);
+        }
+
+        return mailSender;
+    }
+
+    @Bean
+    public EmailTemplateRenderer emailTemplateRenderer(SampleEngineWorkerEmailProperties sampleEngineWorkerEmailProperties) {
+        return new EmailTemplateRenderer(sampleEngineWorkerEmailProperties.getEmailTemplates());
+    }
+
+    @Bean
+    public EmailOutbox emailOutbox(SampleEngineWorkerEmailProperties sampleEngineWorkerEmailProperties) {
+        OutboxProperties outboxProperties = sampleEngineWorkerEmailProperties.getOutbox();
+
+        return new EmailOutbox(
+            Path.of(outboxProperties.getDirectory()),
+            outboxProperties.getRetention(),
+            outboxProperties.getCompactThreshold().toBytes()
+        );
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email;
+
+import com.kuflow.samples.common.temporal.TemporalRuntimeHints;
+import com.kuflow.samples.temporal.worker.email.activity.BulkEmailActivities;
+import com.kuflow.samples.temporal.worker.email.activity.BulkEmailActivitiesImpl;
+import com.kuflow.samples.temporal.worker.email.activity.OutboxEmailActivities;
+import com.kuflow.samples.temporal.worker.email.activity.TaskLogActivities;
+import com.kuflow.samples.temporal.worker.email.activity.TaskLogActivitiesImpl;
+import com.kuflow.samples.temporal.worker.email.activity.model.BulkMailProgress;
+import com.kuflow.samples.temporal.worker.email.workflow.BulkEmailWorkflowImpl;
+import com.kuflow.samples.temporal.worker.email.workflow.EmailFanOutWorkflow;
+import com.kuflow.samples.temporal.worker.email.workflow.EmailFanOutWorkflowImpl;
+import com.kuflow.samples.temporal.worker.email.workflow.SampleWorkflowImpl;
+import com.kuflow.temporal.activity.email.EmailActivities;
+import com.kuflow.temporal.activity.kuflow.KuFlowActivities;
+import com.kuflow.temporal.activity.kuflow.KuFlowActivitiesImpl;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Native image hints for the workflow and activities registered in {@link TemporalBootstrap}, and for the Thymeleaf
+ * templates the email activities render, which are resolved by name at runtime.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        TemporalRuntimeHints.registerWorkflow(hints, SampleWorkflowImpl.class);
+        TemporalRuntimeHints.registerWorkflow(hints, BulkEmailWorkflowImpl.class);
+        TemporalRuntimeHints.registerWorkflow(hints, EmailFanOutWorkflowImpl.class);
+
+        // Started as a child workflow, its stub is a proxy as the activity ones
+        hints.proxies().registerJdkProxy(EmailFanOutWorkflow.class);
+
+        // Activity stubs of the workflows, EmailActivities is implemented by OutboxEmailActivities
+        TemporalRuntimeHints.registerActivityStub(hints, KuFlowActivities.class);
+        TemporalRuntimeHints.registerActivityStub(hints, EmailActivities.class);
+        TemporalRuntimeHints.registerActivityStub(hints, BulkEmailActivities.class);
+        TemporalRuntimeHints.registerActivityStub(hints, TaskLogActivities.class);
+
+        TemporalRuntimeHints.registerActivityImplementation(hints, KuFlowActivitiesImpl.class);
+        TemporalRuntimeHints.registerActivityImplementation(hints, OutboxEmailActivities.class);
+        TemporalRuntimeHints.registerActivityImplementation(hints, BulkEmailActivitiesImpl.class);
+        TemporalRuntimeHints.registerActivityImplementation(hints, TaskLogActivitiesImpl.class);
+
+        // Heartbeat details are not part of any activity signature
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), BulkMailProgress.class);
+
+        hints.resources().registerPattern("templates/*");
+    }
+}
@@ -22,23 +22,61 @@
  */
 package com.kuflow.samples.temporal.worker.email;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class SampleEngineWorkerEmailProperties {
 
     private final TemporalProperties temporal = new TemporalProperties();
 
+    private final TracingProperties tracing = new TracingProperties();
+
+    private final BulkEmailProperties bulkEmail = new BulkEmailProperties();
+
+    private final SmtpPoolProperties smtpPool = new SmtpPoolProperties();
+
+    private final EmailTemplatesProperties emailTemplates = new EmailTemplatesProperties();
+
+    private final OutboxProperties outbox = new OutboxProperties();
+
     public TemporalProperties getTemporal() {
         return this.temporal;
     }
 
+    public TracingProperties getTracing() {
+        return this.tracing;
+    }
+
+    public BulkEmailProperties getBulkEmail() {
+        return this.bulkEmail;
+    }
+
+    public SmtpPoolProperties getSmtpPool() {
+        return this.smtpPool;
+    }
+
+    public EmailTemplatesProperties getEmailTemplates() {
+        return this.emailTemplates;
+    }
+
+    public OutboxProperties getOutbox() {
+        return this.outbox;
+    }
+
     public static final class TemporalProperties {
 
         private String target;
 
         private String kuflowQueue;
 
+        /**
+         * Time given to the activities in flight to finish on shutdown, polling stops at once. The ones still running
+         * after it are handed off to another worker.
+         */
+        private Duration shutdownBudget = Duration.ofMinutes(1);
+
         public String getTarget() {
             return this.target;
         }
@@ -54,5 +92,199 @@ public class SampleEngineWorkerEmailProperties {
         public void setKuflowQueue(String kuflowQueue) {
             this.kuflowQueue = kuflowQueue;
         }
+
+        public Duration getShutdownBudget() {
+            return this.shutdownBudget;
+        }
+
+        public void setShutdownBudget(Duration shutdownBudget) {
+            this.shutdownBudget = shutdownBudget;
+        }
+    }
+
+    public static final class TracingProperties {
+
+        /**
+         * File the spans are appended to, one JSON document per line. Meant for local testing, the OTLP exporter is
+         * configured with {@code management.otlp.tracing.endpoint}.
+         */
+        private String file;
+
+        public String getFile() {
+            return this.file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+    }
+
+    public static final class BulkEmailProperties {
+
+        /**
+         * Emails sent on a pooled SMTP connection before returning it, so that other sends get their turn.
+         */
+        private int chunkSize = 100;
+
+        /**
+         * Sender of the bulk emails, the {@code mail.from} session property or the SMTP user is used when unset.
+         */
+        private String from;
+
+        public int getChunkSize() {
+            return this.chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public String getFrom() {
+            return this.from;
+        }
+
+        public void setFrom(String from) {
+            this.from = from;
+        }
+    }
+
+    public static final class SmtpPoolProperties {
+
+        /**
+         * Maximum SMTP connections open at once, borrowed or idle.
+         */
+        private int maxTotal = 8;
+
+        /**
+         * Time to wait for a connection when all of them are borrowed before failing the send.
+         */
+        private Duration maxWait = Duration.ofSeconds(30);
+
+        /**
+         * Idle connections are closed after this time, before the server drops them.
+         */
+        private Duration maxIdleTime = Duration.ofMinutes(1);
+
+        /**
+         * Connections idle for longer than this are checked with a NOOP before being borrowed.
+         */
+        private Duration validateAfterIdle = Duration.ofSeconds(5);
+
+        /**
+         * Messages sent on a connection before closing it, keep it under the limit of the server.
+         */
+        private int maxMessagesPerConnection = 100;
+
+        public int getMaxTotal() {
+            return this.maxTotal;
+        }
+
+        public void setMaxTotal(int maxTotal) {
+            this.maxTotal = maxTotal;
+        }
+
+        public Duration getMaxWait() {
+            return this.maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public Duration getMaxIdleTime() {
+            return this.maxIdleTime;
+        }
+
+        public void setMaxIdleTime(Duration maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+        }
+
+        public Duration getValidateAfterIdle() {
+            return this.validateAfterIdle;
+        }
+
+        public void setValidateAfterIdle(Duration validateAfterIdle) {
+            this.validateAfterIdle = validateAfterIdle;
+        }
+
+        public int getMaxMessagesPerConnection() {
+            return this.maxMessagesPerConnection;
+        }
+
+        public void setMaxMessagesPerConnection(int maxMessagesPerConnection) {
+            this.maxMessagesPerConnection = maxMessagesPerConnection;
+        }
+    }
+
+    public static final class EmailTemplatesProperties {
+
+        /**
+         * Parse the templates once at startup and keep them until reloaded or changed, disable it to edit them live.
+         */
+        private boolean cache = true;
+
+        /**
+         * Directory the templates are read from instead of {@code templates/} in the classpath. Its changes are picked
+         * up without reloading.
+         */
+        private String directory;
+
+        public boolean isCache() {
+            return this.cache;
+        }
+
+        public void setCache(boolean cache) {
+            this.cache = cache;
+        }
+
+        public String getDirectory() {
+            return this.directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+    }
+
+    public static final class OutboxProperties {
+
+        /**
+         * Directory of the outbox log, keep it on a persistent volume so it survives the worker.
+         */
+        private String directory = "outbox";
+
+        /**
+         * Time the sends are remembered, longer than the time a send activity can be retried.
+         */
+        private Duration retention = Duration.ofDays(7);
+
+        /**
+         * Size of the outbox log that triggers its compaction, once the log has also doubled since the last one.
+         */
+        private DataSize compactThreshold = DataSize.ofMegabytes(64);
+
+        public String getDirectory() {
+            return this.directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public Duration getRetention() {
+            return this.retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        public DataSize getCompactThreshold() {
+            return this.compactThreshold;
+        }
+
+        public void setCompactThreshold(DataSize compactThreshold) {
+            this.compactThreshold = compactThreshold;
+        }
     }
 }
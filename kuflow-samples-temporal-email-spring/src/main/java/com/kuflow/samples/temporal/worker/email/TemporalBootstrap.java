@@ -22,10 +22,22 @@
  */
 package com.kuflow.samples.temporal.worker.email;
 
+import com.kuflow.samples.common.jfr.ActivityEventsInterceptor;
+import com.kuflow.samples.common.metrics.ActivityMetricsInterceptor;
+import com.kuflow.samples.common.metrics.WorkflowTimingInterceptor;
+import com.kuflow.samples.common.temporal.WorkerDrainInterceptor;
+import com.kuflow.samples.common.temporal.WorkerInterceptors;
+import com.kuflow.samples.common.tracing.TemporalTracing;
+import com.kuflow.samples.temporal.worker.email.activity.BulkEmailActivities;
+import com.kuflow.samples.temporal.worker.email.activity.TaskLogActivities;
+import com.kuflow.samples.temporal.worker.email.workflow.BulkEmailWorkflowImpl;
+import com.kuflow.samples.temporal.worker.email.workflow.EmailFanOutWorkflowImpl;
 import com.kuflow.samples.temporal.worker.email.workflow.SampleWorkflowImpl;
 import com.kuflow.temporal.activity.email.EmailActivities;
 import com.kuflow.temporal.activity.kuflow.KuFlowActivities;
 import com.kuflow.temporal.worker.connection.KuFlowTemporalConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,18 +56,36 @@ public class TemporalBootstrap implements InitializingBean, DisposableBean {
 
     private final EmailActivities emailActivities;
 
+    private final BulkEmailActivities bulkEmailActivities;
+
+    private final TaskLogActivities taskLogActivities;
+
     private final SampleEngineWorkerEmailProperties sampleEngineWorkerEmailProperties;
 
+    private final MeterRegistry meterRegistry;
+
+    private final OpenTelemetry openTelemetry;
+
+    private final WorkerDrainInterceptor workerDrainInterceptor = new WorkerDrainInterceptor();
+
     public TemporalBootstrap(
         KuFlowTemporalConnection kuFlowTemporalConnection,
         KuFlowActivities kuFlowActivities,
         EmailActivities emailActivities,
-        SampleEngineWorkerEmailProperties sampleEngineWorkerEmailProperties
+        BulkEmailActivities bulkEmailActivities,
+        TaskLogActivities taskLogActivities,
+        SampleEngineWorkerEmailProperties sampleEngineWorkerEmailProperties,
+        MeterRegistry meterRegistry,
+        OpenTelemetry openTelemetry
     ) {
         this.kuFlowTemporalConnection = kuFlowTemporalConnection;
         this.kuFlowActivities = kuFlowActivities;
         this.emailActivities = emailActivities;
+        this.bulkEmailActivities = bulkEmailActivities;
+        this.taskLogActivities = taskLogActivities;
         this.sampleEngineWorkerEmailProperties = sampleEngineWorkerEmailProperties;
+        this.meterRegistry = meterRegistry;
+        this.openTelemetry = openTelemetry;
     }
 
     @Override
@@ -66,17 +96,34 @@ public class TemporalBootstrap implements InitializingBean, DisposableBean {
 
     @Override
     public void destroy() {
+        this.workerDrainInterceptor.drain(
+            this.kuFlowTemporalConnection.getWorkerFactory(),
+            this.sampleEngineWorkerEmailProperties.getTemporal().getShutdownBudget()
+        );
         this.kuFlowTemporalConnection.shutdown(1, TimeUnit.MINUTES);
         LOGGER.info("Temporal connection shutdown");
     }
 
     private void startWorkers() {
+        this.kuFlowTemporalConnection.configureWorkerFactory(builder ->
+            WorkerInterceptors.append(
+                builder,
+                TemporalTracing.workerInterceptor(this.openTelemetry),
+                new ActivityMetricsInterceptor(this.meterRegistry),
+                new WorkflowTimingInterceptor(this.meterRegistry),
+                new ActivityEventsInterceptor(),
+                this.workerDrainInterceptor
+            )
+        );
+
         this.kuFlowTemporalConnection.configureWorker(builder ->
             builder
                 .withTaskQueue(this.sampleEngineWorkerEmailProperties.getTemporal().getKuflowQueue())
-                .withWorkflowImplementationTypes(SampleWorkflowImpl.class)
+                .withWorkflowImplementationTypes(SampleWorkflowImpl.class, BulkEmailWorkflowImpl.class, EmailFanOutWorkflowImpl.class)
                 .withActivitiesImplementations(this.kuFlowActivities)
                 .withActivitiesImplementations(this.emailActivities)
+                .withActivitiesImplementations(this.bulkEmailActivities)
+                .withActivitiesImplementations(this.taskLogActivities)
         );
 
         this.kuFlowTemporalConnection.start();
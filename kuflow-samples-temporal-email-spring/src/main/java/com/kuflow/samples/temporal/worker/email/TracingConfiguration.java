@@ -0,0 +1,49 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email;
+
+import com.kuflow.samples.common.tracing.FileSpanExporter;
+import java.nio.file.Path;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spans are created through the Micrometer tracing OpenTelemetry bridge and exported with OTLP when
+ * {@code management.otlp.tracing.endpoint} is set. This configuration adds the local file exporter.
+ */
+@Configuration(proxyBeanMethods = false)
+public class TracingConfiguration {
+
+    private final SampleEngineWorkerEmailProperties sampleEngineWorkerEmailProperties;
+
+    public TracingConfiguration(SampleEngineWorkerEmailProperties sampleEngineWorkerEmailProperties) {
+        this.sampleEngineWorkerEmailProperties = sampleEngineWorkerEmailProperties;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.tracing", name = "file")
+    public FileSpanExporter fileSpanExporter() {
+        return new FileSpanExporter(Path.of(this.sampleEngineWorkerEmailProperties.getTracing().getFile()));
+    }
+}
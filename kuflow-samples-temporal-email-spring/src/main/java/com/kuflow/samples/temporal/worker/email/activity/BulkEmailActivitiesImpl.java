@@ -0,0 +1,189 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email.activity;
+
+import com.kuflow.samples.temporal.worker.email.SampleEngineWorkerEmailProperties;
+import com.kuflow.samples.temporal.worker.email.SampleEngineWorkerEmailProperties.BulkEmailProperties;
+import com.kuflow.samples.temporal.worker.email.activity.model.BulkMailProgress;
+import com.kuflow.samples.temporal.worker.email.activity.model.SendBulkMailRequest;
+import com.kuflow.samples.temporal.worker.email.activity.model.SendBulkMailResponse;
+import com.kuflow.samples.temporal.worker.email.mail.EmailMessageRenderer;
+import com.kuflow.samples.temporal.worker.email.mail.PooledJavaMailSender;
+import com.kuflow.temporal.activity.email.model.Email;
+import io.temporal.activity.Activity;
+import io.temporal.activity.ActivityExecutionContext;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailSendException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Send many emails on pooled authenticated SMTP connections instead of one connection per email. A connection is
+ * borrowed for every {@code application.bulk-email.chunk-size} messages, and the index of the last email acknowledged
+ * by the server is heartbeated after every message.
+ *
+ * <p>Every recipient gets its own copy of the email of the request, rendered with {@link EmailMessageRenderer}.
+ */
+@Component
+public class BulkEmailActivitiesImpl implements BulkEmailActivities {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkEmailActivitiesImpl.class);
+
+    private final PooledJavaMailSender mailSender;
+
+    private final BulkEmailProperties bulkEmailProperties;
+
+    private final EmailMessageRenderer emailMessageRenderer;
+
+    public BulkEmailActivitiesImpl(
+        PooledJavaMailSender mailSender,
+        EmailMessageRenderer emailMessageRenderer,
+        SampleEngineWorkerEmailProperties sampleEngineWorkerEmailProperties
+    ) {
+        this.mailSender = mailSender;
+        this.emailMessageRenderer = emailMessageRenderer;
+        this.bulkEmailProperties = sampleEngineWorkerEmailProperties.getBulkEmail();
+    }
+
+    @Override
+    public SendBulkMailResponse sendBulkMail(SendBulkMailRequest request) {
+        ActivityExecutionContext context = Activity.getExecutionContext();
+        BulkMailProgress progress = context.getHeartbeatDetails(BulkMailProgress.class).orElseGet(BulkMailProgress::new);
+
+        List<String> recipients = request.getRecipients();
+        int next = progress.getNext();
+        List<String> rejectedRecipients = new ArrayList<>(progress.getRejectedRecipients());
+        if (next > 0) {
+            LOGGER.info("Resuming bulk mail at email {} of {}", next + 1, recipients.size());
+        }
+
+        while (next < recipients.size()) {
+            int chunkEnd = Math.min(next + this.bulkEmailProperties.getChunkSize(), recipients.size());
+
+            try (Transport transport = this.mailSender.borrowTransport()) {
+                for (; next < chunkEnd; next++) {
+                    String recipient = recipients.get(next);
+                    if (!this.send(transport, email(request.getEmail(), recipient))) {
+                        rejectedRecipients.add(recipient);
+                    }
+
+                    context.heartbeat(new BulkMailProgress(next + 1, List.copyOf(rejectedRecipients)));
+                }
+            } catch (MessagingException e) {
+                throw new MailSendException("Bulk mail failed at email %d of %d".formatted(next + 1, recipients.size()), e);
+            }
+        }
+
+        SendBulkMailResponse response = new SendBulkMailResponse();
+        response.setSent(recipients.size() - rejectedRecipients.size());
+        response.setRejectedRecipients(rejectedRecipients);
+
+        LOGGER.info("Bulk mail finished: {} sent, {} rejected", response.getSent(), rejectedRecipients.size());
+
+        return response;
+    }
+
+    /**
+     * @return email of the request for the recipient, the variables are shared as rendering only reads them
+     */
+    private static Email email(Email template, String recipient) {
+        Email email = new Email();
+        email.setTemplate(template.getTemplate());
+        email.setTo(recipient);
+        email.setVariables(template.getVariables());
+
+        return email;
+    }
+
+    /**
+     * @return false when the recipient was rejected, any other failure is thrown to retry the activity from this email
+     */
+    private boolean send(Transport transport, Email email) throws MessagingException {
+        MimeMessage message;
+        try {
+            message = this.emailMessageRenderer.render(email, this.bulkEmailProperties.getFrom());
+        } catch (AddressException e) {
+            LOGGER.warn("Invalid recipient {}: {}", email.getTo(), e.getMessage());
+
+            return false;
+        }
+
+        try {
+            transport.sendMessage(message, message.getAllRecipients());
+        } catch (SendFailedException e) {
+            if (e.getValidSentAddresses() != null && e.getValidSentAddresses().length > 0) {
+                return true;
+            }
+
+            if (!isPermanentlyRejected(e)) {
+                throw e;
+            }
+
+            LOGGER.warn("Recipient {} rejected: {}", email.getTo(), e.getMessage());
+
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Only a 5xx reply to the RCPT command of every recipient is a rejection. Failures of MAIL FROM or DATA, and 4xx
+     * replies as 421, 450 or 452, are transient and the email is sent again by the next attempt.
+     */
+    private static boolean isPermanentlyRejected(SendFailedException e) {
+        if (e instanceof SMTPSendFailedException) {
+            return false;
+        }
+
+        Address[] invalidAddresses = e.getInvalidAddresses();
+        if (invalidAddresses == null || invalidAddresses.length == 0) {
+            return false;
+        }
+        if (e.getValidUnsentAddresses() != null && e.getValidUnsentAddresses().length > 0) {
+            return false;
+        }
+
+        Set<Address> rejectedAddresses = new HashSet<>();
+        for (Exception next = e; next instanceof MessagingException messagingException; next = messagingException.getNextException()) {
+            if (next instanceof SMTPAddressFailedException addressFailed && addressFailed.getReturnCode() / 100 == 5) {
+                rejectedAddresses.add(addressFailed.getAddress());
+            }
+        }
+
+        return rejectedAddresses.containsAll(Arrays.asList(invalidAddresses));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email.activity;
+
+import com.kuflow.samples.temporal.worker.email.mail.EmailMessageRenderer;
+import com.kuflow.samples.temporal.worker.email.outbox.EmailOutbox;
+import com.kuflow.temporal.activity.email.EmailActivities;
+import com.kuflow.temporal.activity.email.model.SendMailRequest;
+import com.kuflow.temporal.activity.email.model.SendMailResponse;
+import io.temporal.activity.Activity;
+import io.temporal.activity.ActivityInfo;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Primary;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+/**
+ * KuFlow email activity sending through {@link EmailOutbox}. The first attempt renders the message and records it
+ * before sending, and records the delivery as soon as the SMTP server accepts it. A retried attempt sends the recorded
+ * message, same {@code Message-ID} included, or does nothing if it was already delivered.
+ *
+ * <p>Attempts are identified by their workflow execution and activity id, which do not change between retries. The
+ * outbox is local to the worker, a retry picked up by another worker renders and sends again.
+ */
+@Primary
+@Component
+public class OutboxEmailActivities implements EmailActivities {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxEmailActivities.class);
+
+    private final JavaMailSender mailSender;
+
+    private final EmailMessageRenderer emailMessageRenderer;
+
+    private final EmailOutbox emailOutbox;
+
+    public OutboxEmailActivities(JavaMailSender mailSender, EmailMessageRenderer emailMessageRenderer, EmailOutbox emailOutbox) {
+        this.mailSender = mailSender;
+        this.emailMessageRenderer = emailMessageRenderer;
+        this.emailOutbox = emailOutbox;
+    }
+
+    @Override
+    public SendMailResponse sendMail(SendMailRequest request) {
+        ActivityInfo info = Activity.getExecutionContext().getInfo();
+        String key = info.getWorkflowId() + "/" + info.getRunId() + "/" + info.getActivityId();
+
+        if (this.emailOutbox.isDelivered(key)) {
+            LOGGER.info("Email to {} already delivered by a previous attempt", request.getEmail().getTo());
+
+            return new SendMailResponse();
+        }
+
+        MimeMessage message;
+        Optional<byte[]> rendered = this.emailOutbox.findRendered(key);
+        if (rendered.isPresent()) {
+            message = this.emailMessageRenderer.read(rendered.get());
+        } else {
+            try {
+                message = this.emailMessageRenderer.render(request.getEmail(), null);
+
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                message.writeTo(content);
+                this.emailOutbox.recordRendered(key, content.toByteArray());
+            } catch (MessagingException | IOException e) {
+                throw new MailPreparationException("Error rendering the email to " + request.getEmail().getTo(), e);
+            }
+        }
+
+        this.mailSender.send(message);
+        this.emailOutbox.recordDelivered(key);
+
+        return new SendMailResponse();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email.activity;
+
+import com.kuflow.rest.KuFlowRestClient;
+import com.kuflow.rest.model.ProcessItemTaskAppendLogParams;
+import com.kuflow.samples.temporal.worker.email.activity.model.TaskLogAppendRequest;
+import com.kuflow.samples.temporal.worker.email.activity.model.TaskLogAppendResponse;
+import io.temporal.activity.Activity;
+import io.temporal.activity.ActivityExecutionContext;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * Append a batch of task logs in one activity. KuFlow has no endpoint to append several entries at once, so they are
+ * appended one by one, and the index of the next entry is heartbeated after each of them. The details of the last
+ * heartbeat are reported with a failure, so the retry starts from there. At most the last entries may be repeated:
+ * the heartbeats are throttled, a worker crash loses the ones not sent yet, and an entry KuFlow accepted may fail to
+ * reach the worker.
+ */
+@Component
+public class TaskLogActivitiesImpl implements TaskLogActivities {
+
+    private final KuFlowRestClient kuFlowRestClient;
+
+    public TaskLogActivitiesImpl(KuFlowRestClient kuFlowRestClient) {
+        this.kuFlowRestClient = kuFlowRestClient;
+    }
+
+    @Override
+    public TaskLogAppendResponse appendProcessItemTaskLogs(TaskLogAppendRequest request) {
+        ActivityExecutionContext context = Activity.getExecutionContext();
+
+        List<ProcessItemTaskAppendLogParams> logs = request.getLogs();
+        for (int next = context.getHeartbeatDetails(Integer.class).orElse(0); next < logs.size(); next++) {
+            this.kuFlowRestClient.getProcessItemOperations().appendProcessItemTaskLog(request.getProcessItemId(), logs.get(next));
+            context.heartbeat(next + 1);
+        }
+
+        TaskLogAppendResponse response = new TaskLogAppendResponse();
+        response.setAppended(logs.size());
+
+        return response;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email.activity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Heartbeat details of {@code sendBulkMail}, a new instance is heartbeated every time so the one being sent is never
+ * modified.
+ */
+public class BulkMailProgress {
+
+    private int next;
+
+    private List<String> rejectedRecipients = new ArrayList<>();
+
+    public BulkMailProgress() {}
+
+    public BulkMailProgress(int next, List<String> rejectedRecipients) {
+        this.next = next;
+        this.rejectedRecipients = rejectedRecipients;
+    }
+
+    /**
+     * @return index of the first email not acknowledged by the SMTP server yet
+     */
+    public int getNext() {
+        return this.next;
+    }
+
+    public void setNext(int next) {
+        this.next = next;
+    }
+
+    public List<String> getRejectedRecipients() {
+        return this.rejectedRecipients;
+    }
+
+    public void setRejectedRecipients(List<String> rejectedRecipients) {
+        this.rejectedRecipients = rejectedRecipients;
+    }
+}
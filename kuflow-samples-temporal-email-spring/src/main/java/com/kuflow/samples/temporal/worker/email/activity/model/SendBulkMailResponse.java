@@ -0,0 +1,52 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email.activity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SendBulkMailResponse {
+
+    private int sent;
+
+    private List<String> rejectedRecipients = new ArrayList<>();
+
+    public int getSent() {
+        return this.sent;
+    }
+
+    public void setSent(int sent) {
+        this.sent = sent;
+    }
+
+    /**
+     * @return recipients the SMTP server refused or whose address is not valid, they are not retried
+     */
+    public List<String> getRejectedRecipients() {
+        return this.rejectedRecipients;
+    }
+
+    public void setRejectedRecipients(List<String> rejectedRecipients) {
+        this.rejectedRecipients = rejectedRecipients;
+    }
+}
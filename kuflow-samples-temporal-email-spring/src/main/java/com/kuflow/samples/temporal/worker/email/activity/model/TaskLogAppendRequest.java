@@ -0,0 +1,54 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email.activity.model;
+
+import com.kuflow.rest.model.ProcessItemTaskAppendLogParams;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class TaskLogAppendRequest {
+
+    private UUID processItemId;
+
+    private List<ProcessItemTaskAppendLogParams> logs = new ArrayList<>();
+
+    public UUID getProcessItemId() {
+        return this.processItemId;
+    }
+
+    public void setProcessItemId(UUID processItemId) {
+        this.processItemId = processItemId;
+    }
+
+    /**
+     * @return entries in the order they are appended
+     */
+    public List<ProcessItemTaskAppendLogParams> getLogs() {
+        return this.logs;
+    }
+
+    public void setLogs(List<ProcessItemTaskAppendLogParams> logs) {
+        this.logs = logs;
+    }
+}
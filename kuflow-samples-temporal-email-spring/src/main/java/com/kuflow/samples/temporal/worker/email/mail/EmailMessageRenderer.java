@@ -0,0 +1,81 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email.mail;
+
+import com.kuflow.samples.temporal.worker.email.mail.EmailTemplateRenderer.RenderedEmail;
+import com.kuflow.temporal.activity.email.model.Email;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+/**
+ * Build the MIME message of a KuFlow {@link Email}, rendered with {@link EmailTemplateRenderer}.
+ */
+@Component
+public class EmailMessageRenderer {
+
+    private final PooledJavaMailSender mailSender;
+
+    private final EmailTemplateRenderer emailTemplateRenderer;
+
+    public EmailMessageRenderer(PooledJavaMailSender mailSender, EmailTemplateRenderer emailTemplateRenderer) {
+        this.mailSender = mailSender;
+        this.emailTemplateRenderer = emailTemplateRenderer;
+    }
+
+    /**
+     * @param from sender, the {@code mail.from} session property or the SMTP user is used when null
+     * @return message with its headers, {@code Message-ID} included, already set
+     */
+    public MimeMessage render(Email email, String from) throws MessagingException {
+        Map<String, Object> variables = new HashMap<>();
+        if (email.getVariables() != null) {
+            variables.putAll(email.getVariables());
+        }
+        RenderedEmail renderedEmail = this.emailTemplateRenderer.render(email.getTemplate(), variables);
+
+        MimeMessage message = this.mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        if (from != null) {
+            helper.setFrom(from);
+        }
+        helper.setTo(email.getTo());
+        helper.setSubject(renderedEmail.subject());
+        helper.setText(renderedEmail.body(), true);
+        message.saveChanges();
+
+        return message;
+    }
+
+    /**
+     * @param content message as written by {@link MimeMessage#writeTo}
+     */
+    public MimeMessage read(byte[] content) {
+        return this.mailSender.createMimeMessage(new ByteArrayInputStream(content));
+    }
+}
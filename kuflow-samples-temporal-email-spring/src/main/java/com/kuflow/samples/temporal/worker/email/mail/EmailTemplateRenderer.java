@@ -0,0 +1,343 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email.mail;
+
+import com.kuflow.samples.temporal.worker.email.SampleEngineWorkerEmailProperties.EmailTemplatesProperties;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.AbstractConfigurableTemplateResolver;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.templateresolver.FileTemplateResolver;
+
+/**
+ * Render the emails as the KuFlow email activity does: {@code <template>.html} is the body and
+ * {@code <template>.subject} the subject, both read from {@code templates/} in the classpath or from
+ * {@code application.email-templates.directory}.
+ *
+ * <p>With the cache enabled every template is parsed once at startup and kept until {@link #reload()} is called or,
+ * for a directory, until its file changes. The output is written to a buffer reused by each thread, so rendering an
+ * email allocates little more than the resulting strings.
+ */
+public class EmailTemplateRenderer implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmailTemplateRenderer.class);
+
+    private static final String CLASSPATH_LOCATION = "templates/";
+
+    private static final String BODY_SUFFIX = ".html";
+
+    private static final String SUBJECT_SUFFIX = ".subject";
+
+    /**
+     * Buffers grown over this size by an unusually large email are not kept.
+     */
+    private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+
+    private static final ThreadLocal<BufferWriter> BUFFERS = ThreadLocal.withInitial(BufferWriter::new);
+
+    private final EmailTemplatesProperties properties;
+
+    private final TemplateEngine templateEngine;
+
+    private final WatchService watchService;
+
+    public EmailTemplateRenderer(EmailTemplatesProperties properties) {
+        this.properties = properties;
+        this.templateEngine = this.createTemplateEngine();
+        this.watchService = properties.isCache() && properties.getDirectory() != null ? this.watch(properties.getDirectory()) : null;
+
+        if (properties.isCache()) {
+            this.precompile();
+        }
+    }
+
+    public RenderedEmail render(String template, Map<String, Object> variables) {
+        Context context = new Context(null, variables);
+
+        String subject = this.process(template + SUBJECT_SUFFIX, context).strip();
+        String body = this.process(template, context);
+
+        return new RenderedEmail(subject, body);
+    }
+
+    /**
+     * Drop every cached template and parse them again.
+     *
+     * @return the templates parsed
+     */
+    public Set<String> reload() {
+        this.templateEngine.clearTemplateCache();
+        LOGGER.info("Email templates cache cleared");
+
+        return this.properties.isCache() ? this.precompile() : Set.of();
+    }
+
+    @Override
+    public void close() {
+        if (this.watchService != null) {
+            try {
+                this.watchService.close();
+            } catch (IOException e) {
+                LOGGER.debug("Error closing the email templates watch service", e);
+            }
+        }
+    }
+
+    private String process(String template, Context context) {
+        BufferWriter buffer = BUFFERS.get();
+        try {
+            this.templateEngine.process(template, context, buffer);
+
+            return buffer.toString();
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFERS.remove();
+            } else {
+                buffer.reset();
+            }
+        }
+    }
+
+    private Set<String> precompile() {
+        long start = System.nanoTime();
+
+        // Templates are parsed and cached on first use, render every one of them with no variables
+        Set<String> templates = this.findTemplates();
+        if (templates.isEmpty() && this.properties.getDirectory() == null) {
+            // A native image lists its classpath only if the resources were included and the GraalVM resource file
+            // system is present, rendering resolves the templates by name and does not depend on it
+            LOGGER.warn("No email templates found in classpath:{}, they are parsed on first use", CLASSPATH_LOCATION);
+        }
+        for (String template : templates) {
+            try {
+                this.process(template, new Context());
+            } catch (RuntimeException e) {
+                LOGGER.warn("Email template {} could not be precompiled: {}", template, e.getMessage());
+            }
+        }
+
+        LOGGER.info("Precompiled {} email templates in {} ms", templates.size(), (System.nanoTime() - start) / 1_000_000);
+
+        return templates;
+    }
+
+    private Set<String> findTemplates() {
+        List<String> fileNames = new ArrayList<>();
+        try {
+            if (this.properties.getDirectory() != null) {
+                try (Stream<Path> files = Files.list(Path.of(this.properties.getDirectory()))) {
+                    files.map(file -> file.getFileName().toString()).forEach(fileNames::add);
+                }
+            } else {
+                PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(this.getClass().getClassLoader());
+                for (Resource resource : resolver.getResources("classpath*:" + CLASSPATH_LOCATION + "*")) {
+                    fileNames.add(resource.getFilename());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error listing the email templates", e);
+        }
+
+        Set<String> templates = new TreeSet<>();
+        for (String fileName : fileNames) {
+            String template = templateName(fileName);
+            if (template != null) {
+                templates.add(template);
+            }
+        }
+
+        return templates;
+    }
+
+    private WatchService watch(String directory) {
+        try {
+            WatchService watchService = FileSystems.getDefault().newWatchService();
+            Path.of(directory).register(
+                watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE
+            );
+
+            Thread thread = new Thread(() -> this.invalidateChanges(watchService), "email-templates-watcher");
+            thread.setDaemon(true);
+            thread.start();
+
+            return watchService;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error watching the email templates directory " + directory, e);
+        }
+    }
+
+    private void invalidateChanges(WatchService watchService) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.context() instanceof Path file) {
+                        String template = templateName(file.toString());
+                        if (template != null) {
+                            this.templateEngine.clearTemplateCacheFor(template);
+                            LOGGER.info("Email template {} changed, removed from the cache", template);
+                        }
+                    } else {
+                        // Overflow, events were lost
+                        this.templateEngine.clearTemplateCache();
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Renderer closed
+        }
+    }
+
+    private TemplateEngine createTemplateEngine() {
+        AbstractConfigurableTemplateResolver subjectResolver = this.createTemplateResolver();
+        subjectResolver.setResolvablePatterns(Set.of("*" + SUBJECT_SUFFIX));
+        subjectResolver.setTemplateMode(TemplateMode.TEXT);
+        subjectResolver.setOrder(1);
+
+        AbstractConfigurableTemplateResolver bodyResolver = this.createTemplateResolver();
+        bodyResolver.setSuffix(BODY_SUFFIX);
+        bodyResolver.setTemplateMode(TemplateMode.HTML);
+        bodyResolver.setOrder(2);
+
+        TemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.addTemplateResolver(subjectResolver);
+        templateEngine.addTemplateResolver(bodyResolver);
+
+        return templateEngine;
+    }
+
+    private AbstractConfigurableTemplateResolver createTemplateResolver() {
+        AbstractConfigurableTemplateResolver templateResolver;
+        if (this.properties.getDirectory() != null) {
+            templateResolver = new FileTemplateResolver();
+            templateResolver.setPrefix(Path.of(this.properties.getDirectory()).toAbsolutePath() + "/");
+        } else {
+            templateResolver = new ClassLoaderTemplateResolver();
+            templateResolver.setPrefix(CLASSPATH_LOCATION);
+        }
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        // Without TTL the entries are only dropped by reload(), a file change or the LRU limit of the cache
+        templateResolver.setCacheable(this.properties.isCache());
+        templateResolver.setCacheTTLMs(null);
+
+        return templateResolver;
+    }
+
+    /**
+     * @return name of the template of the file, null when it is not a template
+     */
+    private static String templateName(String fileName) {
+        if (fileName.endsWith(BODY_SUFFIX)) {
+            return fileName.substring(0, fileName.length() - BODY_SUFFIX.length());
+        } else if (fileName.endsWith(SUBJECT_SUFFIX)) {
+            return fileName;
+        }
+
+        return null;
+    }
+
+    public record RenderedEmail(String subject, String body) {}
+
+    /**
+     * Unsynchronized writer over a {@link StringBuilder} that keeps its capacity between renders.
+     */
+    private static final class BufferWriter extends Writer {
+
+        private final StringBuilder buffer = new StringBuilder(16 * 1024);
+
+        @Override
+        public void write(int c) {
+            this.buffer.append((char) c);
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            this.buffer.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String string, int offset, int length) {
+            this.buffer.append(string, offset, offset + length);
+        }
+
+        @Override
+        public Writer append(CharSequence chars) {
+            this.buffer.append(chars);
+
+            return this;
+        }
+
+        @Override
+        public void flush() {
+            // Nothing to flush
+        }
+
+        @Override
+        public void close() {
+            // Reused, see reset()
+        }
+
+        int capacity() {
+            return this.buffer.capacity();
+        }
+
+        void reset() {
+            this.buffer.setLength(0);
+        }
+
+        @Override
+        public String toString() {
+            return this.buffer.toString();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email.mail;
+
+import com.kuflow.samples.temporal.worker.email.SampleEngineWorkerEmailProperties.SmtpPoolProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * {@link JavaMailSenderImpl} sending through a {@link SmtpTransportPool} instead of connecting and authenticating for
+ * every {@code send} call.
+ */
+public class PooledJavaMailSender extends JavaMailSenderImpl implements AutoCloseable {
+
+    private final SmtpTransportPool pool;
+
+    public PooledJavaMailSender(SmtpPoolProperties smtpPoolProperties, MeterRegistry meterRegistry) {
+        this.pool = new SmtpTransportPool(this::openTransport, this::getSession, smtpPoolProperties, meterRegistry);
+    }
+
+    /**
+     * @return a connected transport of the pool, closing it returns it to the pool
+     */
+    public Transport borrowTransport() throws MessagingException {
+        return this.pool.borrow();
+    }
+
+    @Override
+    protected Transport connectTransport() throws MessagingException {
+        return this.pool.borrow();
+    }
+
+    @Override
+    public void close() {
+        this.pool.close();
+    }
+
+    private Transport openTransport() throws MessagingException {
+        return super.connectTransport();
+    }
+}
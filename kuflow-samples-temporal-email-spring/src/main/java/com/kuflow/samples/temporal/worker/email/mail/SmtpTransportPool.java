@@ -0,0 +1,307 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email.mail;
+
+import com.kuflow.samples.temporal.worker.email.SampleEngineWorkerEmailProperties.SmtpPoolProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded pool of connected and authenticated SMTP transports.
+ *
+ * <p>Borrowed transports are returned to the pool when closed. A transport is discarded instead when a send failed for
+ * any reason other than rejected recipients, when it reached the messages per connection limit or when it was idle
+ * longer than the maximum idle time, which a background task also enforces. Transports idle for a while are checked with
+ * {@link Transport#isConnected()}, a NOOP for SMTP, before being handed out again.
+ *
+ * <p>Metrics, prefixed with {@value #METRIC_PREFIX}: {@code active} and {@code idle} connections, {@code wait} time to
+ * borrow one, and {@code connections.opened} and {@code connections.closed} tagged with the reason.
+ */
+public class SmtpTransportPool implements AutoCloseable {
+
+    public static final String METRIC_PREFIX = "kuflow.samples.smtp.pool";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final TransportFactory transportFactory;
+
+    private final Supplier<Session> session;
+
+    private final SmtpPoolProperties properties;
+
+    private final Semaphore permits;
+
+    private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final ScheduledExecutorService evictor;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer waitTimer;
+
+    private final Counter opened;
+
+    private volatile boolean closed;
+
+    /**
+     * @param transportFactory opens a new connected transport
+     * @param session mail session of the transports
+     */
+    public SmtpTransportPool(
+        TransportFactory transportFactory,
+        Supplier<Session> session,
+        SmtpPoolProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.transportFactory = transportFactory;
+        this.session = session;
+        this.properties = properties;
+        this.permits = new Semaphore(properties.getMaxTotal(), true);
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder(METRIC_PREFIX + ".active", this.active, AtomicInteger::get)
+            .description("SMTP connections borrowed from the pool")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".idle", this.idle, Deque::size)
+            .description("SMTP connections idle in the pool")
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder(METRIC_PREFIX + ".wait")
+            .description("Time waited to borrow an SMTP connection")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.opened = Counter.builder(METRIC_PREFIX + ".connections.opened").description("SMTP connections opened").register(meterRegistry);
+
+        long evictionPeriod = Math.max(1, properties.getMaxIdleTime().toMillis() / 2);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "smtp-pool-evictor");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        this.evictor.scheduleAtFixedRate(this::evictIdle, evictionPeriod, evictionPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return a connected transport, closing it returns it to the pool
+     * @throws MessagingException when no connection is available within the maximum wait or it cannot be opened
+     */
+    public Transport borrow() throws MessagingException {
+        if (this.closed) {
+            throw new MessagingException("SMTP connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!this.permits.tryAcquire(this.properties.getMaxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new MessagingException("No SMTP connection available within " + this.properties.getMaxWait());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted waiting for an SMTP connection", e);
+        } finally {
+            this.waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        try {
+            PooledConnection connection = this.takeIdle();
+            if (connection == null) {
+                connection = this.open();
+            }
+
+            this.active.incrementAndGet();
+
+            return new PooledTransport(this.session.get(), connection);
+        } catch (MessagingException | RuntimeException e) {
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        this.evictor.shutdownNow();
+
+        PooledConnection connection;
+        while ((connection = this.idle.pollFirst()) != null) {
+            this.discard(connection, "shutdown");
+        }
+    }
+
+    private PooledConnection takeIdle() {
+        PooledConnection connection;
+        // Most recently used first, the ones at the tail are left to expire when the load drops
+        while ((connection = this.idle.pollFirst()) != null) {
+            long idleNanos = System.nanoTime() - connection.lastUsed;
+            if (idleNanos > this.properties.getMaxIdleTime().toNanos()) {
+                this.discard(connection, "idle");
+            } else if (idleNanos > this.properties.getValidateAfterIdle().toNanos() && !connection.transport.isConnected()) {
+                this.discard(connection, "validation");
+            } else {
+                return connection;
+            }
+        }
+
+        return null;
+    }
+
+    private PooledConnection open() throws MessagingException {
+        PooledConnection connection = new PooledConnection(this.transportFactory.open());
+        this.opened.increment();
+
+        return connection;
+    }
+
+    private void release(PooledConnection connection) {
+        this.active.decrementAndGet();
+        connection.lastUsed = System.nanoTime();
+
+        if (this.closed) {
+            this.discard(connection, "shutdown");
+        } else if (connection.broken) {
+            this.discard(connection, "broken");
+        } else if (connection.messages >= this.properties.getMaxMessagesPerConnection()) {
+            this.discard(connection, "limit");
+        } else {
+            this.idle.offerFirst(connection);
+        }
+
+        this.permits.release();
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        for (PooledConnection connection : this.idle) {
+            if (now - connection.lastUsed > this.properties.getMaxIdleTime().toNanos() && this.idle.remove(connection)) {
+                this.discard(connection, "idle");
+            }
+        }
+    }
+
+    private void discard(PooledConnection connection, String reason) {
+        Counter.builder(METRIC_PREFIX + ".connections.closed")
+            .description("SMTP connections closed")
+            .tag("reason", reason)
+            .register(this.meterRegistry)
+            .increment();
+
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            LOGGER.debug("Error closing SMTP connection discarded because of {}", reason, e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface TransportFactory {
+        Transport open() throws MessagingException;
+    }
+
+    private static final class PooledConnection {
+
+        private final Transport transport;
+
+        private volatile long lastUsed = System.nanoTime();
+
+        private int messages;
+
+        private boolean broken;
+
+        PooledConnection(Transport transport) {
+            this.transport = transport;
+        }
+    }
+
+    /**
+     * Transport handed out by the pool, sending through the pooled connection and returning it on close.
+     */
+    private final class PooledTransport extends Transport {
+
+        private PooledConnection connection;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PooledTransport(Session session, PooledConnection connection) {
+            super(session, connection.transport.getURLName());
+            this.connection = connection;
+        }
+
+        @Override
+        public void sendMessage(Message message, Address[] addresses) throws MessagingException {
+            if (this.connection.messages >= SmtpTransportPool.this.properties.getMaxMessagesPerConnection()) {
+                // Borrowed for more messages than the server accepts on a connection, go on with a new one
+                PooledConnection next = SmtpTransportPool.this.open();
+                SmtpTransportPool.this.discard(this.connection, "limit");
+                this.connection = next;
+            }
+
+            try {
+                this.connection.transport.sendMessage(message, addresses);
+            } catch (SendFailedException e) {
+                // Rejected recipients leave the connection usable, unless nothing was sent because it failed
+                if (e.getNextException() != null && !(e.getNextException() instanceof SendFailedException)) {
+                    this.connection.broken = true;
+                }
+                throw e;
+            } catch (MessagingException | RuntimeException e) {
+                this.connection.broken = true;
+                throw e;
+            } finally {
+                this.connection.messages++;
+            }
+        }
+
+        @Override
+        public boolean isConnected() {
+            return !this.released.get() && !this.connection.broken;
+        }
+
+        @Override
+        public void close() {
+            if (this.released.compareAndSet(false, true)) {
+                SmtpTransportPool.this.release(this.connection);
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email.outbox;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only log of the emails rendered and delivered by this worker, so that a retried send reuses the message
+ * rendered by the first attempt and skips the ones already accepted by the SMTP server.
+ *
+ * <p>Every record is forced to disk before the call returns and carries a CRC, so a record torn by a crash is detected
+ * and dropped when the log is loaded. The log is rewritten with the entries within the retention when the worker starts
+ * and when it grows over both the compaction threshold and twice its size after the last compaction. When the entries
+ * within the retention alone are over the threshold, every compaction is thus followed by as many appended bytes as it
+ * rewrote, instead of one append.
+ */
+public class EmailOutbox implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmailOutbox.class);
+
+    private static final String FILE_NAME = "outbox.log";
+
+    private static final byte RENDERED = 1;
+
+    private static final byte DELIVERED = 2;
+
+    /**
+     * Length and CRC of the record body.
+     */
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    private final Path file;
+
+    private final Duration retention;
+
+    private final long compactThreshold;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private FileChannel channel;
+
+    /**
+     * Size of the log over which the next append compacts it.
+     */
+    private long compactSize;
+
+    /**
+     * @param directory directory of the log, created if missing
+     * @param retention time entries are kept, longer than the time a send can be retried
+     * @param compactThreshold minimum size of the log that triggers its compaction
+     */
+    public EmailOutbox(Path directory, Duration retention, long compactThreshold) {
+        this.file = directory.resolve(FILE_NAME);
+        this.retention = retention;
+        this.compactThreshold = compactThreshold;
+
+        try {
+            Files.createDirectories(directory);
+            this.load();
+            this.compact();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error opening the email outbox " + this.file, e);
+        }
+    }
+
+    public synchronized boolean isDelivered(String key) {
+        Entry entry = this.entries.get(key);
+
+        return entry != null && entry.delivered();
+    }
+
+    /**
+     * @return message rendered for the key and not delivered yet
+     */
+    public synchronized Optional<byte[]> findRendered(String key) {
+        Entry entry = this.entries.get(key);
+
+        return entry != null && !entry.delivered() ? Optional.of(entry.message()) : Optional.empty();
+    }
+
+    public synchronized void recordRendered(String key, byte[] message) {
+        this.append(RENDERED, key, message);
+    }
+
+    public synchronized void recordDelivered(String key) {
+        this.append(DELIVERED, key, new byte[0]);
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Error closing the email outbox", e);
+        }
+    }
+
+    private void append(byte type, String key, byte[] payload) {
+        long time = System.currentTimeMillis();
+        try {
+            ByteBuffer record = encode(type, key, time, payload);
+            while (record.hasRemaining()) {
+                this.channel.write(record);
+            }
+            this.channel.force(false);
+
+            this.apply(type, key, time, payload);
+
+            if (this.channel.size() > this.compactSize) {
+                this.compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing the email outbox " + this.file, e);
+        }
+    }
+
+    private void apply(byte type, String key, long time, byte[] payload) {
+        this.entries.put(key, type == RENDERED ? new Entry(time, payload, false) : new Entry(time, null, true));
+    }
+
+    private void load() throws IOException {
+        if (!Files.exists(this.file)) {
+            return;
+        }
+
+        long validSize = 0;
+        try (InputStream inputStream = Files.newInputStream(this.file)) {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
+            while (true) {
+                int length;
+                long crc;
+                byte[] body;
+                try {
+                    length = input.readInt();
+                    crc = input.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length < 0) {
+                    break;
+                }
+                body = input.readNBytes(length);
+                if (body.length < length || crc(body) != crc) {
+                    break;
+                }
+
+                ByteBuffer buffer = ByteBuffer.wrap(body);
+                byte type = buffer.get();
+                byte[] key = new byte[buffer.getShort()];
+                buffer.get(key);
+                long time = buffer.getLong();
+                byte[] payload = new byte[buffer.remaining()];
+                buffer.get(payload);
+
+                this.apply(type, new String(key, StandardCharsets.UTF_8), time, payload);
+                validSize += RECORD_HEADER_SIZE + length;
+            }
+        }
+
+        if (validSize < Files.size(this.file)) {
+            LOGGER.warn("Email outbox {} ends with a torn record, dropped", this.file);
+        }
+    }
+
+    /**
+     * Rewrite the log with the entries within the retention, replacing it atomically.
+     */
+    private void compact() throws IOException {
+        if (this.channel != null) {
+            this.channel.close();
+        }
+
+        long expiredBefore = System.currentTimeMillis() - this.retention.toMillis();
+        Path compacted = this.file.resolveSibling(FILE_NAME + ".compact");
+        try (
+            FileChannel output = FileChannel.open(
+                compacted,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+            )
+        ) {
+            for (Iterator<Map.Entry<String, Entry>> iterator = this.entries.entrySet().iterator(); iterator.hasNext();) {
+                Map.Entry<String, Entry> mapEntry = iterator.next();
+                Entry entry = mapEntry.getValue();
+                if (entry.time() < expiredBefore) {
+                    iterator.remove();
+                    continue;
+                }
+
+                ByteBuffer record = entry.delivered()
+                    ? encode(DELIVERED, mapEntry.getKey(), entry.time(), new byte[0])
+                    : encode(RENDERED, mapEntry.getKey(), entry.time(), entry.message());
+                while (record.hasRemaining()) {
+                    output.write(record);
+                }
+            }
+            output.force(true);
+        }
+        Files.move(compacted, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        this.channel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.compactSize = Math.max(this.compactThreshold, 2 * this.channel.size());
+        LOGGER.info("Email outbox {} compacted to {} entries", this.file, this.entries.size());
+    }
+
+    private static ByteBuffer encode(byte type, String key, long time, byte[] payload) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer body = ByteBuffer.allocate(1 + Short.BYTES + keyBytes.length + Long.BYTES + payload.length);
+        body.put(type).putShort((short) keyBytes.length).put(keyBytes).putLong(time).put(payload);
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + body.capacity());
+        record.putInt(body.capacity()).putLong(crc(body.array())).put(body.array());
+
+        return record.flip();
+    }
+
+    private static long crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+
+        return crc.getValue();
+    }
+
+    /**
+     * @param message rendered message, null once delivered
+     */
+    private record Entry(long time, byte[] message, boolean delivered) {}
+}
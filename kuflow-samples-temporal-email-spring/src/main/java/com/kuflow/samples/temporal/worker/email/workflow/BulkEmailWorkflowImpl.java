@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email.workflow;
+
+import com.kuflow.rest.model.ProcessItem;
+import com.kuflow.rest.model.ProcessItemTaskLogLevel;
+import com.kuflow.samples.temporal.worker.email.activity.BulkEmailActivities;
+import com.kuflow.samples.temporal.worker.email.activity.TaskLogActivities;
+import com.kuflow.samples.temporal.worker.email.activity.model.SendBulkMailRequest;
+import com.kuflow.samples.temporal.worker.email.activity.model.SendBulkMailResponse;
+import com.kuflow.temporal.activity.kuflow.KuFlowActivities;
+import com.kuflow.temporal.workflow.kuflow.model.SignalProcessItem;
+import com.kuflow.temporal.workflow.kuflow.model.WorkflowRequest;
+import com.kuflow.temporal.workflow.kuflow.model.WorkflowResponse;
+import io.temporal.activity.ActivityOptions;
+import io.temporal.common.RetryOptions;
+import io.temporal.workflow.Workflow;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Variant of {@link SampleWorkflowImpl} sending the email to many recipients: the recipient field of the info task
+ * holds a list of addresses separated by commas, semicolons or blanks, and every address gets its own email rendered
+ * with the same subject and body. The emails are sent by a single heartbeating activity that resumes after the last
+ * acknowledged recipient when it is retried.
+ */
+public class BulkEmailWorkflowImpl implements BulkEmailWorkflow {
+
+    private final BulkEmailActivities bulkEmailActivities;
+
+    private final TaskLogBuffer taskLogs;
+
+    private final EmailProcessSteps steps;
+
+    public BulkEmailWorkflowImpl() {
+        RetryOptions defaultRetryOptions = RetryOptions.newBuilder().validateBuildWithDefaults();
+
+        ActivityOptions defaultActivityOptions = ActivityOptions.newBuilder()
+            .setRetryOptions(defaultRetryOptions)
+            .setStartToCloseTimeout(Duration.ofMinutes(10))
+            .setScheduleToCloseTimeout(Duration.ofDays(365))
+            .validateAndBuildWithDefaults();
+
+        KuFlowActivities kuFlowActivities = Workflow.newActivityStub(KuFlowActivities.class, defaultActivityOptions);
+
+        this.taskLogs = new TaskLogBuffer(kuFlowActivities, Workflow.newActivityStub(TaskLogActivities.class, defaultActivityOptions));
+
+        this.steps = new EmailProcessSteps(kuFlowActivities, this.taskLogs);
+
+        // Sending thousands of emails takes longer than any other activity, progress is heartbeated after every email
+        ActivityOptions bulkEmailActivityOptions = ActivityOptions.newBuilder(defaultActivityOptions)
+            .setStartToCloseTimeout(Duration.ofHours(4))
+            .setHeartbeatTimeout(Duration.ofMinutes(2))
+            .validateAndBuildWithDefaults();
+
+        this.bulkEmailActivities = Workflow.newActivityStub(BulkEmailActivities.class, bulkEmailActivityOptions);
+    }
+
+    @Override
+    public WorkflowResponse runWorkflow(WorkflowRequest workflowRequest) {
+        UUID processId = workflowRequest.getProcessId();
+
+        ProcessItem processItemFillInfo = this.steps.createProcessItemFillInfo(processId);
+
+        this.createAutomaticTaskSendEmail(processId, processItemFillInfo);
+
+        return this.steps.completeWorkflow(workflowRequest);
+    }
+
+    @Override
+    public void handleKuFlowEngineSignalProcessItem(SignalProcessItem signal) {
+        this.steps.handleKuFlowEngineSignalProcessItem(signal);
+    }
+
+    /**
+     * Execute a Temporal activity that sends an email to every recipient with the data from a previous KuFlow task.
+     * The request carries the email and the recipients once, the activity renders an email per recipient.
+     *
+     * @param processId process identifier
+     * @param infoProcessItem task with the data to send in the emails
+     */
+    private void createAutomaticTaskSendEmail(UUID processId, ProcessItem infoProcessItem) {
+        UUID processItemId = this.steps.createAutomaticTaskSendEmail(processId);
+
+        SendBulkMailRequest sendBulkMailRequest = new SendBulkMailRequest();
+        sendBulkMailRequest.setEmail(EmailProcessSteps.email(infoProcessItem));
+        sendBulkMailRequest.setRecipients(EmailProcessSteps.recipients(EmailProcessSteps.recipientField(infoProcessItem)));
+
+        // Add some logs to Kuflow task in order to see feedback in Kuflow app
+        this.taskLogs.info(processItemId, "Sending %d emails".formatted(sendBulkMailRequest.getRecipients().size()));
+
+        // Send the mails, it can take hours so the logs so far are appended first
+        this.taskLogs.flush(processItemId);
+        SendBulkMailResponse sendBulkMailResponse = this.bulkEmailActivities.sendBulkMail(sendBulkMailRequest);
+
+        // Add some logs to Kuflow task in order to see feedback in Kuflow app
+        this.taskLogs.info(processItemId, "%d emails sent!".formatted(sendBulkMailResponse.getSent()));
+        if (!sendBulkMailResponse.getRejectedRecipients().isEmpty()) {
+            this.taskLogs.append(
+                processItemId,
+                ProcessItemTaskLogLevel.WARN,
+                "Rejected recipients: " + String.join(", ", sendBulkMailResponse.getRejectedRecipients())
+            );
+        }
+
+        this.steps.completeAutomaticTask(processItemId);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email.workflow;
+
+import com.kuflow.samples.temporal.worker.email.workflow.model.EmailFanOutRequest;
+import com.kuflow.samples.temporal.worker.email.workflow.model.EmailFanOutResponse;
+import com.kuflow.temporal.activity.email.EmailActivities;
+import com.kuflow.temporal.activity.email.model.Email;
+import com.kuflow.temporal.activity.email.model.SendMailRequest;
+import io.temporal.activity.ActivityOptions;
+import io.temporal.common.RetryOptions;
+import io.temporal.workflow.Async;
+import io.temporal.workflow.Promise;
+import io.temporal.workflow.Workflow;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+
+/**
+ * Send an email to every recipient of the request with one {@code sendMail} activity each, keeping up to
+ * {@code parallelism} of them running at once. After {@code sendsPerRun} emails, or earlier if Temporal suggests it,
+ * the run continues as new with the remaining recipients so its history stays bounded whatever the size of the list.
+ *
+ * <p>A recipient whose email still fails after the retries is reported instead of failing the whole send.
+ */
+public class EmailFanOutWorkflowImpl implements EmailFanOutWorkflow {
+
+    private static final Logger LOGGER = Workflow.getLogger(EmailFanOutWorkflowImpl.class);
+
+    private final EmailActivities emailActivities;
+
+    public EmailFanOutWorkflowImpl() {
+        // A rejected recipient must not block the others forever
+        RetryOptions retryOptions = RetryOptions.newBuilder().setMaximumAttempts(5).validateBuildWithDefaults();
+
+        ActivityOptions activityOptions = ActivityOptions.newBuilder()
+            .setRetryOptions(retryOptions)
+            .setStartToCloseTimeout(Duration.ofMinutes(2))
+            .validateAndBuildWithDefaults();
+
+        this.emailActivities = Workflow.newActivityStub(EmailActivities.class, activityOptions);
+    }
+
+    @Override
+    public EmailFanOutResponse sendEmails(EmailFanOutRequest request) {
+        List<String> recipients = request.getRecipients();
+        int parallelism = Math.max(1, request.getParallelism());
+        int sendsPerRun = Math.max(1, request.getSendsPerRun());
+        int sent = request.getSent();
+        List<String> failedRecipients = new ArrayList<>(request.getFailedRecipients());
+
+        // Insertion ordered, so completed sends are always collected in the same order on replay
+        Map<Promise<Boolean>, String> inFlight = new LinkedHashMap<>();
+        int next = 0;
+        while (true) {
+            // At least one email per run, or a suggestion at start would continue as new forever
+            boolean runFull = next >= sendsPerRun || (next > 0 && Workflow.getInfo().isContinueAsNewSuggested());
+            if (next < recipients.size() && !runFull && inFlight.size() < parallelism) {
+                String recipient = recipients.get(next++);
+                inFlight.put(this.send(request.getEmail(), recipient), recipient);
+                continue;
+            }
+
+            if (inFlight.isEmpty()) {
+                break;
+            }
+
+            Promise.anyOf(inFlight.keySet()).get();
+            for (Iterator<Map.Entry<Promise<Boolean>, String>> iterator = inFlight.entrySet().iterator(); iterator.hasNext();) {
+                Map.Entry<Promise<Boolean>, String> entry = iterator.next();
+                if (!entry.getKey().isCompleted()) {
+                    continue;
+                }
+
+                if (entry.getKey().get()) {
+                    sent++;
+                } else {
+                    failedRecipients.add(entry.getValue());
+                }
+                iterator.remove();
+            }
+        }
+
+        if (next < recipients.size()) {
+            LOGGER.info("Continuing as new after {} emails, {} recipients left", sent + failedRecipients.size(), recipients.size() - next);
+
+            EmailFanOutRequest continued = new EmailFanOutRequest();
+            continued.setEmail(request.getEmail());
+            continued.setRecipients(new ArrayList<>(recipients.subList(next, recipients.size())));
+            continued.setParallelism(request.getParallelism());
+            continued.setSendsPerRun(request.getSendsPerRun());
+            continued.setSent(sent);
+            continued.setFailedRecipients(failedRecipients);
+
+            Workflow.continueAsNew(continued);
+        }
+
+        EmailFanOutResponse response = new EmailFanOutResponse();
+        response.setSent(sent);
+        response.setFailedRecipients(failedRecipients);
+
+        return response;
+    }
+
+    /**
+     * @return promise completed with false when the email failed after every retry, it never fails
+     */
+    private Promise<Boolean> send(Email template, String recipient) {
+        Email email = new Email();
+        email.setTemplate(template.getTemplate());
+        email.setTo(recipient);
+        email.setVariables(template.getVariables() != null ? new HashMap<>(template.getVariables()) : null);
+
+        SendMailRequest sendMailRequest = new SendMailRequest();
+        sendMailRequest.setEmail(email);
+
+        return Async.function(this.emailActivities::sendMail, sendMailRequest).handle((response, failure) -> {
+            if (failure != null) {
+                LOGGER.warn("Email to {} failed: {}", recipient, failure.getMessage());
+            }
+
+            return failure == null;
+        });
+    }
+}
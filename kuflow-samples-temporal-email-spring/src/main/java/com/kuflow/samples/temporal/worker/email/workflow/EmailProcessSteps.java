@@ -0,0 +1,214 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email.workflow;
+
+import com.kuflow.rest.model.ProcessItem;
+import com.kuflow.rest.model.ProcessItemType;
+import com.kuflow.temporal.activity.email.model.Email;
+import com.kuflow.temporal.activity.kuflow.KuFlowActivities;
+import com.kuflow.temporal.activity.kuflow.model.ProcessItemCreateRequest;
+import com.kuflow.temporal.activity.kuflow.model.ProcessItemRetrieveRequest;
+import com.kuflow.temporal.activity.kuflow.model.ProcessItemRetrieveResponse;
+import com.kuflow.temporal.activity.kuflow.model.ProcessItemTaskClaimRequest;
+import com.kuflow.temporal.activity.kuflow.model.ProcessItemTaskCompleteRequest;
+import com.kuflow.temporal.workflow.kuflow.KuFlowWorkflow;
+import com.kuflow.temporal.workflow.kuflow.model.SignalProcessItem;
+import com.kuflow.temporal.workflow.kuflow.model.SignalProcessItemType;
+import com.kuflow.temporal.workflow.kuflow.model.WorkflowRequest;
+import com.kuflow.temporal.workflow.kuflow.model.WorkflowResponse;
+import io.temporal.workflow.Workflow;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * KuFlow tasks of the email workflows: the info task filled by a user with the recipient, subject and body, and the
+ * automatic task the worker completes after sending the email. Used from the workflow thread of a single execution,
+ * which forwards it the task signals.
+ */
+public class EmailProcessSteps {
+
+    private enum TaskDefinitionCode {
+        FILL_INFO,
+        SEND_EMAIL,
+    }
+
+    private enum FormPropertyCode {
+        EMAIL_RECIPIENT,
+        EMAIL_SUBJECT,
+        EMAIL_BODY,
+        EMAIL_PARALLELISM,
+    }
+
+    private static final Pattern RECIPIENT_SEPARATOR = Pattern.compile("[,;\\s]+");
+
+    private final KuFlowActivities kuFlowActivities;
+
+    private final TaskLogBuffer taskLogs;
+
+    private final Set<UUID> kuFlowCompletedTaskIds = new HashSet<>();
+
+    public EmailProcessSteps(KuFlowActivities kuFlowActivities, TaskLogBuffer taskLogs) {
+        this.kuFlowActivities = kuFlowActivities;
+        this.taskLogs = taskLogs;
+    }
+
+    public void handleKuFlowEngineSignalProcessItem(SignalProcessItem signal) {
+        if (SignalProcessItemType.TASK.equals(signal.getType())) {
+            this.kuFlowCompletedTaskIds.add(signal.getId());
+        }
+    }
+
+    /**
+     * Complete the Workflow
+     * @param workflowRequest workflow request
+     * @return the workflow response
+     */
+    public WorkflowResponse completeWorkflow(WorkflowRequest workflowRequest) {
+        WorkflowResponse workflowResponse = new WorkflowResponse();
+        workflowResponse.setMessage("Completed process " + workflowRequest.getProcessId());
+
+        return workflowResponse;
+    }
+
+    /**
+     * Create a process item task in KuFlow in order to collect the necessary information to send an email.
+     *
+     * @param processId process identifier
+     * @return process item created
+     */
+    public ProcessItem createProcessItemFillInfo(UUID processId) {
+        UUID processItemId = KuFlowWorkflow.generateUUIDv7();
+
+        ProcessItemCreateRequest createRequest = new ProcessItemCreateRequest();
+        createRequest.setId(processItemId);
+        createRequest.setProcessId(processId);
+        createRequest.setType(ProcessItemType.TASK);
+        createRequest.setProcessItemDefinitionCode(TaskDefinitionCode.FILL_INFO.name());
+
+        // Create Task in KuFlow
+        this.createProcessItemAndWaitCompleted(createRequest);
+
+        ProcessItemRetrieveRequest retrieveRequest = new ProcessItemRetrieveRequest();
+        retrieveRequest.setProcessItemId(processItemId);
+        ProcessItemRetrieveResponse retrieveResponse = this.kuFlowActivities.retrieveProcessItem(retrieveRequest);
+
+        return retrieveResponse.getProcessItem();
+    }
+
+    /**
+     * Create the automatic task in KuFlow that reflects the sending of the email and claim it: our worker will be
+     * responsible for its completion.
+     *
+     * @param processId process identifier
+     * @return identifier of the task created
+     */
+    public UUID createAutomaticTaskSendEmail(UUID processId) {
+        UUID processItemId = KuFlowWorkflow.generateUUIDv7();
+
+        ProcessItemCreateRequest createRequest = new ProcessItemCreateRequest();
+        createRequest.setId(processItemId);
+        createRequest.setProcessId(processId);
+        createRequest.setType(ProcessItemType.TASK);
+        createRequest.setProcessItemDefinitionCode(TaskDefinitionCode.SEND_EMAIL.name());
+
+        // Create Automatic Task in KuFlow
+        this.createProcessItemAndWaitCompleted(createRequest);
+
+        // Claim Automatic Task: Our worker will be responsible for its completion.
+        ProcessItemTaskClaimRequest claimRequest = new ProcessItemTaskClaimRequest();
+        claimRequest.setProcessItemId(processItemId);
+        this.kuFlowActivities.claimProcessItemTask(claimRequest);
+
+        return processItemId;
+    }
+
+    /**
+     * Complete the automatic task, with its logs.
+     */
+    public void completeAutomaticTask(UUID processItemId) {
+        this.taskLogs.flush(processItemId);
+        ProcessItemTaskCompleteRequest completeRequest = new ProcessItemTaskCompleteRequest();
+        completeRequest.setProcessItemId(processItemId);
+        this.kuFlowActivities.completeProcessItemTask(completeRequest);
+    }
+
+    /**
+     * @return email with the subject and body of the info task, without recipient
+     */
+    public static Email email(ProcessItem infoProcessItem) {
+        Map<String, Object> infoProcessItemData = infoProcessItem.getTask().getData().getValue();
+
+        Email email = new Email();
+        email.setTemplate("email");
+        email.addVariables("subject", infoProcessItemData.get(FormPropertyCode.EMAIL_SUBJECT.name()).toString());
+        email.addVariables("body", infoProcessItemData.get(FormPropertyCode.EMAIL_BODY.name()).toString());
+
+        return email;
+    }
+
+    /**
+     * @return recipient field of the info task as filled, it may hold several addresses
+     */
+    public static String recipientField(ProcessItem infoProcessItem) {
+        return infoProcessItem.getTask().getData().getValue().get(FormPropertyCode.EMAIL_RECIPIENT.name()).toString();
+    }
+
+    /**
+     * @return addresses of the recipient field, separated by commas, semicolons or blanks
+     */
+    public static List<String> recipients(String recipientField) {
+        return RECIPIENT_SEPARATOR.splitAsStream(recipientField.strip()).filter(it -> !it.isEmpty()).toList();
+    }
+
+    /**
+     * @param defaultParallelism value used when the field is empty or not a positive number
+     * @return optional parallelism field of the info task, the emails sent at once
+     */
+    public static int parallelism(ProcessItem infoProcessItem, int defaultParallelism) {
+        Object value = infoProcessItem.getTask().getData().getValue().get(FormPropertyCode.EMAIL_PARALLELISM.name());
+        if (value instanceof Number number && number.intValue() > 0) {
+            return number.intValue();
+        }
+        if (value instanceof String string && string.strip().matches("[1-9]\\d{0,8}")) {
+            return Integer.parseInt(string.strip());
+        }
+
+        return defaultParallelism;
+    }
+
+    /**
+     * Create a task and wait for the task will be completed
+     * @param request process item to create
+     */
+    private void createProcessItemAndWaitCompleted(ProcessItemCreateRequest request) {
+        this.kuFlowActivities.createProcessItem(request);
+
+        // Wait for completion, the logs buffered so far are not held while the task is open
+        this.taskLogs.flushAll();
+        Workflow.await(() -> this.kuFlowCompletedTaskIds.contains(request.getId()));
+    }
+}
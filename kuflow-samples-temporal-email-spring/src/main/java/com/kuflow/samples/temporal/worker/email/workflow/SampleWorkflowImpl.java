@@ -24,49 +24,48 @@ package com.kuflow.samples.temporal.worker.email.workflow;
 
 import com.kuflow.rest.model.ProcessItem;
 import com.kuflow.rest.model.ProcessItemTaskLogLevel;
-import com.kuflow.rest.model.ProcessItemType;
+import com.kuflow.samples.temporal.worker.email.activity.TaskLogActivities;
+import com.kuflow.samples.temporal.worker.email.workflow.model.EmailFanOutRequest;
+import com.kuflow.samples.temporal.worker.email.workflow.model.EmailFanOutResponse;
 import com.kuflow.temporal.activity.email.EmailActivities;
 import com.kuflow.temporal.activity.email.model.Email;
 import com.kuflow.temporal.activity.email.model.SendMailRequest;
 import com.kuflow.temporal.activity.kuflow.KuFlowActivities;
-import com.kuflow.temporal.activity.kuflow.model.ProcessItemCreateRequest;
-import com.kuflow.temporal.activity.kuflow.model.ProcessItemRetrieveRequest;
-import com.kuflow.temporal.activity.kuflow.model.ProcessItemRetrieveResponse;
-import com.kuflow.temporal.activity.kuflow.model.ProcessItemTaskClaimRequest;
-import com.kuflow.temporal.activity.kuflow.model.ProcessItemTaskCompleteRequest;
-import com.kuflow.temporal.activity.kuflow.model.ProcessItemTaskLoggAppendRequest;
-import com.kuflow.temporal.workflow.kuflow.KuFlowWorkflow;
 import com.kuflow.temporal.workflow.kuflow.model.SignalProcessItem;
-import com.kuflow.temporal.workflow.kuflow.model.SignalProcessItemType;
 import com.kuflow.temporal.workflow.kuflow.model.WorkflowRequest;
 import com.kuflow.temporal.workflow.kuflow.model.WorkflowResponse;
 import io.temporal.activity.ActivityOptions;
 import io.temporal.common.RetryOptions;
+import io.temporal.workflow.ChildWorkflowOptions;
 import io.temporal.workflow.Workflow;
 import java.time.Duration;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.List;
 import java.util.UUID;
 
 public class SampleWorkflowImpl implements SampleWorkflow {
 
-    private enum TaskDefinitionCode {
-        FILL_INFO,
-        SEND_EMAIL,
-    }
+    private static final String CHANGE_ID_FAN_OUT = "email-fan-out";
 
-    private enum FormPropertyCode {
-        EMAIL_RECIPIENT,
-        EMAIL_SUBJECT,
-        EMAIL_BODY,
-    }
+    private static final int VERSION_FAN_OUT = 1;
+
+    private static final String CHANGE_ID_FLUSH_BEFORE_SEND = "email-flush-logs-before-send";
+
+    private static final int VERSION_FLUSH_BEFORE_SEND = 1;
+
+    /**
+     * Send activities running at once when the info task does not set {@code EMAIL_PARALLELISM}. A workflow cannot read
+     * the worker configuration, set the field to the {@code application.smtp-pool.max-total} of the workers when it
+     * differs: sends over it wait for a pooled connection, and sends under it leave connections idle.
+     */
+    private static final int DEFAULT_FAN_OUT_PARALLELISM = 8;
 
-    private final KuFlowActivities kuFlowActivities;
+    private static final int FAN_OUT_SENDS_PER_RUN = 500;
 
     private final EmailActivities emailActivities;
 
-    private final Set<UUID> kuFlowCompletedTaskIds = new HashSet<>();
+    private final TaskLogBuffer taskLogs;
+
+    private final EmailProcessSteps steps;
 
     public SampleWorkflowImpl() {
         RetryOptions defaultRetryOptions = RetryOptions.newBuilder().validateBuildWithDefaults();
@@ -77,7 +76,11 @@ public class SampleWorkflowImpl implements SampleWorkflow {
             .setScheduleToCloseTimeout(Duration.ofDays(365))
             .validateAndBuildWithDefaults();
 
-        this.kuFlowActivities = Workflow.newActivityStub(KuFlowActivities.class, defaultActivityOptions);
+        KuFlowActivities kuFlowActivities = Workflow.newActivityStub(KuFlowActivities.class, defaultActivityOptions);
+
+        this.taskLogs = new TaskLogBuffer(kuFlowActivities, Workflow.newActivityStub(TaskLogActivities.class, defaultActivityOptions));
+
+        this.steps = new EmailProcessSteps(kuFlowActivities, this.taskLogs);
 
         this.emailActivities = Workflow.newActivityStub(EmailActivities.class, defaultActivityOptions);
     }
@@ -86,59 +89,21 @@ public class SampleWorkflowImpl implements SampleWorkflow {
     public WorkflowResponse runWorkflow(WorkflowRequest workflowRequest) {
         UUID processId = workflowRequest.getProcessId();
 
-        ProcessItem processItemFillInfo = this.createProcessItemFillInfo(processId);
+        ProcessItem processItemFillInfo = this.steps.createProcessItemFillInfo(processId);
 
         this.createAutomaticTaskSendEmail(processId, processItemFillInfo);
 
-        return this.completeWorkflow(workflowRequest);
+        return this.steps.completeWorkflow(workflowRequest);
     }
 
     @Override
     public void handleKuFlowEngineSignalProcessItem(SignalProcessItem signal) {
-        if (SignalProcessItemType.TASK.equals(signal.getType())) {
-            this.kuFlowCompletedTaskIds.add(signal.getId());
-        }
-    }
-
-    /**
-     * Complete the Workflow
-     * @param workflowRequest workflow request
-     * @return the workflow response
-     */
-    private WorkflowResponse completeWorkflow(WorkflowRequest workflowRequest) {
-        WorkflowResponse workflowResponse = new WorkflowResponse();
-        workflowResponse.setMessage("Completed process " + workflowRequest.getProcessId());
-
-        return workflowResponse;
-    }
-
-    /**
-     * Create a process item task in KuFlow in order to collect the necessary information to send an email.
-     *
-     * @param processId process identifier
-     * @return process item created
-     */
-    private ProcessItem createProcessItemFillInfo(UUID processId) {
-        UUID processItemId = KuFlowWorkflow.generateUUIDv7();
-
-        ProcessItemCreateRequest createRequest = new ProcessItemCreateRequest();
-        createRequest.setId(processItemId);
-        createRequest.setProcessId(processId);
-        createRequest.setType(ProcessItemType.TASK);
-        createRequest.setProcessItemDefinitionCode(TaskDefinitionCode.FILL_INFO.name());
-
-        // Create Task in KuFlow
-        this.createProcessItemAndWaitCompleted(createRequest);
-
-        ProcessItemRetrieveRequest retrieveRequest = new ProcessItemRetrieveRequest();
-        retrieveRequest.setProcessItemId(processItemId);
-        ProcessItemRetrieveResponse retrieveResponse = this.kuFlowActivities.retrieveProcessItem(retrieveRequest);
-
-        return retrieveResponse.getProcessItem();
+        this.steps.handleKuFlowEngineSignalProcessItem(signal);
     }
 
     /**
-     * Execute a Temporal activity that sends an email with the data from a previous KuFlow task.
+     * Execute a Temporal activity that sends an email with the data from a previous KuFlow task. When the recipient
+     * field holds several addresses separated by commas, semicolons or blanks, every address gets its own email.
      * <br>
      * To see the activity process reflected in the KuFlow application, we created a task.
      * The execution of Temporal activities does not have to have direct correspondence with KuFlow tasks. Its use
@@ -149,71 +114,71 @@ public class SampleWorkflowImpl implements SampleWorkflow {
      * @param infoProcessItem task with the data to send in the email
      */
     private void createAutomaticTaskSendEmail(UUID processId, ProcessItem infoProcessItem) {
-        UUID processItemId = KuFlowWorkflow.generateUUIDv7();
-
-        ProcessItemCreateRequest createRequest = new ProcessItemCreateRequest();
-        createRequest.setId(processItemId);
-        createRequest.setProcessId(processId);
-        createRequest.setType(ProcessItemType.TASK);
-        createRequest.setProcessItemDefinitionCode(TaskDefinitionCode.SEND_EMAIL.name());
+        UUID processItemId = this.steps.createAutomaticTaskSendEmail(processId);
 
-        // Create Automatic Task in KuFlow
-        this.createProcessItemAndWaitCompleted(createRequest);
+        // Get values from Info Task, the recipient field may hold several addresses
+        Email email = EmailProcessSteps.email(infoProcessItem);
 
-        // Claim Automatic Task: Our worker will be responsible for its completion.
-        ProcessItemTaskClaimRequest claimRequest = new ProcessItemTaskClaimRequest();
-        claimRequest.setProcessItemId(processItemId);
-        this.kuFlowActivities.claimProcessItemTask(claimRequest);
+        String recipientField = EmailProcessSteps.recipientField(infoProcessItem);
+        List<String> recipients = EmailProcessSteps.recipients(recipientField);
 
-        Map<String, Object> infoProcessItemData = infoProcessItem.getTask().getData().getValue();
+        int version = Workflow.getVersion(CHANGE_ID_FAN_OUT, Workflow.DEFAULT_VERSION, VERSION_FAN_OUT);
+        if (version == Workflow.DEFAULT_VERSION || recipients.size() <= 1) {
+            // Executions started before the fan-out took the whole field as the recipient
+            email.setTo(version == Workflow.DEFAULT_VERSION || recipients.isEmpty() ? recipientField : recipients.get(0));
+            this.sendEmail(processItemId, email);
+        } else {
+            this.sendEmails(processItemId, email, recipients, EmailProcessSteps.parallelism(infoProcessItem, DEFAULT_FAN_OUT_PARALLELISM));
+        }
 
-        // Get values from Info Task
-        Email email = new Email();
-        email.setTemplate("email");
-        email.setTo(infoProcessItemData.get(FormPropertyCode.EMAIL_RECIPIENT.name()).toString());
-        email.addVariables("subject", infoProcessItemData.get(FormPropertyCode.EMAIL_SUBJECT.name()).toString());
-        email.addVariables("body", infoProcessItemData.get(FormPropertyCode.EMAIL_BODY.name()).toString());
+        this.steps.completeAutomaticTask(processItemId);
+    }
 
+    private void sendEmail(UUID processItemId, Email email) {
         // Add some logs to Kuflow task in order to see feedback in Kuflow app
-        this.addLogInfo(processItemId, "Sending email to " + email.getTo());
+        this.taskLogs.info(processItemId, "Sending email to " + email.getTo());
+
+        // Send a mail, the logs so far are appended first except in executions started before the flush was added
+        int version = Workflow.getVersion(CHANGE_ID_FLUSH_BEFORE_SEND, Workflow.DEFAULT_VERSION, VERSION_FLUSH_BEFORE_SEND);
+        if (version != Workflow.DEFAULT_VERSION) {
+            this.taskLogs.flush(processItemId);
+        }
 
-        // Send a mail
         SendMailRequest sendMailRequest = new SendMailRequest();
         sendMailRequest.setEmail(email);
         this.emailActivities.sendMail(sendMailRequest);
 
         // Add some logs to Kuflow task in order to see feedback in Kuflow app
-        this.addLogInfo(processItemId, "Email sent!");
-
-        // Activity Complete
-        ProcessItemTaskCompleteRequest completeRequest = new ProcessItemTaskCompleteRequest();
-        completeRequest.setProcessItemId(processItemId);
-        this.kuFlowActivities.completeProcessItemTask(completeRequest);
-    }
-
-    /**
-     * Add a log message to the referenced KuFlow task
-     *
-     * @param processItemId process item identifier
-     * @param message a log message
-     */
-    private void addLogInfo(UUID processItemId, String message) {
-        ProcessItemTaskLoggAppendRequest request = new ProcessItemTaskLoggAppendRequest();
-        request.setProcessItemId(processItemId);
-        request.setLevel(ProcessItemTaskLogLevel.INFO);
-        request.setMessage(message);
-
-        this.kuFlowActivities.appendProcessItemTaskLog(request);
+        this.taskLogs.info(processItemId, "Email sent!");
     }
 
     /**
-     * Create a task and wait for the task will be completed
-     * @param request process item to create
+     * Send the email to every recipient from a child workflow, which runs the sends in parallel and continues as new
+     * to keep the history of this workflow small for long lists.
      */
-    private void createProcessItemAndWaitCompleted(ProcessItemCreateRequest request) {
-        this.kuFlowActivities.createProcessItem(request);
-
-        // Wait for completion
-        Workflow.await(() -> this.kuFlowCompletedTaskIds.contains(request.getId()));
+    private void sendEmails(UUID processItemId, Email email, List<String> recipients, int parallelism) {
+        this.taskLogs.info(processItemId, "Sending %d emails".formatted(recipients.size()));
+        this.taskLogs.flush(processItemId);
+
+        EmailFanOutRequest fanOutRequest = new EmailFanOutRequest();
+        fanOutRequest.setEmail(email);
+        fanOutRequest.setRecipients(recipients);
+        fanOutRequest.setParallelism(parallelism);
+        fanOutRequest.setSendsPerRun(FAN_OUT_SENDS_PER_RUN);
+
+        ChildWorkflowOptions childWorkflowOptions = ChildWorkflowOptions.newBuilder()
+            .setWorkflowId(Workflow.getInfo().getWorkflowId() + "-emails-" + processItemId)
+            .build();
+        EmailFanOutWorkflow emailFanOutWorkflow = Workflow.newChildWorkflowStub(EmailFanOutWorkflow.class, childWorkflowOptions);
+        EmailFanOutResponse fanOutResponse = emailFanOutWorkflow.sendEmails(fanOutRequest);
+
+        this.taskLogs.info(processItemId, "%d emails sent!".formatted(fanOutResponse.getSent()));
+        if (!fanOutResponse.getFailedRecipients().isEmpty()) {
+            this.taskLogs.append(
+                processItemId,
+                ProcessItemTaskLogLevel.WARN,
+                "Failed recipients: " + String.join(", ", fanOutResponse.getFailedRecipients())
+            );
+        }
     }
 }
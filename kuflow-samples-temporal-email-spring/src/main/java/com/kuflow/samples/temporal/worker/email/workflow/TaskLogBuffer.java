@@ -0,0 +1,160 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email.workflow;
+
+import com.kuflow.rest.model.ProcessItemTaskAppendLogParams;
+import com.kuflow.rest.model.ProcessItemTaskLogLevel;
+import com.kuflow.samples.temporal.worker.email.activity.TaskLogActivities;
+import com.kuflow.samples.temporal.worker.email.activity.model.TaskLogAppendRequest;
+import com.kuflow.temporal.activity.kuflow.KuFlowActivities;
+import com.kuflow.temporal.activity.kuflow.model.ProcessItemTaskLoggAppendRequest;
+import io.temporal.workflow.Workflow;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Task logs of a workflow, buffered per process item and appended with one activity per flush instead of one
+ * activity per entry. Entries keep their order. They are flushed:
+ * <ul>
+ *   <li>on {@link #flush(UUID)} or {@link #flushAll()}, called at the step boundaries of the workflow: before waiting
+ *   for a task, before a long running activity and before completing a task,</li>
+ *   <li>when a process item has {@code maxEntries} entries,</li>
+ *   <li>when an entry is added and the oldest one of the process item was added {@code maxDelay} ago.</li>
+ * </ul>
+ *
+ * <p>Executions started before the buffer existed keep appending each entry with its own activity on replay.
+ */
+public class TaskLogBuffer {
+
+    private static final String CHANGE_ID = "task-log-buffer";
+
+    private static final int VERSION_BUFFERED = 1;
+
+    private static final int DEFAULT_MAX_ENTRIES = 50;
+
+    private static final Duration DEFAULT_MAX_DELAY = Duration.ofMinutes(1);
+
+    private final KuFlowActivities kuFlowActivities;
+
+    private final TaskLogActivities taskLogActivities;
+
+    private final int maxEntries;
+
+    private final Duration maxDelay;
+
+    private final Map<UUID, PendingLogs> pendingLogs = new LinkedHashMap<>();
+
+    private Boolean buffered;
+
+    public TaskLogBuffer(KuFlowActivities kuFlowActivities, TaskLogActivities taskLogActivities) {
+        this(kuFlowActivities, taskLogActivities, DEFAULT_MAX_ENTRIES, DEFAULT_MAX_DELAY);
+    }
+
+    public TaskLogBuffer(KuFlowActivities kuFlowActivities, TaskLogActivities taskLogActivities, int maxEntries, Duration maxDelay) {
+        this.kuFlowActivities = kuFlowActivities;
+        this.taskLogActivities = taskLogActivities;
+        this.maxEntries = maxEntries;
+        this.maxDelay = maxDelay;
+    }
+
+    public void info(UUID processItemId, String message) {
+        this.append(processItemId, ProcessItemTaskLogLevel.INFO, message);
+    }
+
+    public void append(UUID processItemId, ProcessItemTaskLogLevel level, String message) {
+        if (!this.isBuffered()) {
+            this.appendNow(processItemId, level, message);
+
+            return;
+        }
+
+        ProcessItemTaskAppendLogParams log = new ProcessItemTaskAppendLogParams();
+        log.setLevel(level);
+        log.setMessage(message);
+
+        PendingLogs pending = this.pendingLogs.computeIfAbsent(processItemId, it -> new PendingLogs(Workflow.currentTimeMillis()));
+        pending.logs.add(log);
+
+        if (pending.logs.size() >= this.maxEntries || Workflow.currentTimeMillis() - pending.since >= this.maxDelay.toMillis()) {
+            this.flush(processItemId);
+        }
+    }
+
+    /**
+     * Append the buffered entries of the process item, if any.
+     */
+    public void flush(UUID processItemId) {
+        PendingLogs pending = this.pendingLogs.remove(processItemId);
+        if (pending == null) {
+            return;
+        }
+
+        TaskLogAppendRequest request = new TaskLogAppendRequest();
+        request.setProcessItemId(processItemId);
+        request.setLogs(pending.logs);
+
+        this.taskLogActivities.appendProcessItemTaskLogs(request);
+    }
+
+    /**
+     * Append the buffered entries of every process item, in the order the process items logged first.
+     */
+    public void flushAll() {
+        for (UUID processItemId : List.copyOf(this.pendingLogs.keySet())) {
+            this.flush(processItemId);
+        }
+    }
+
+    private boolean isBuffered() {
+        // Resolved on the first entry, where executions started before the buffer scheduled their first log activity
+        if (this.buffered == null) {
+            this.buffered = Workflow.getVersion(CHANGE_ID, Workflow.DEFAULT_VERSION, VERSION_BUFFERED) == VERSION_BUFFERED;
+        }
+
+        return this.buffered;
+    }
+
+    private void appendNow(UUID processItemId, ProcessItemTaskLogLevel level, String message) {
+        ProcessItemTaskLoggAppendRequest request = new ProcessItemTaskLoggAppendRequest();
+        request.setProcessItemId(processItemId);
+        request.setLevel(level);
+        request.setMessage(message);
+
+        this.kuFlowActivities.appendProcessItemTaskLog(request);
+    }
+
+    private static final class PendingLogs {
+
+        private final long since;
+
+        private final List<ProcessItemTaskAppendLogParams> logs = new ArrayList<>();
+
+        PendingLogs(long since) {
+            this.since = since;
+        }
+    }
+}
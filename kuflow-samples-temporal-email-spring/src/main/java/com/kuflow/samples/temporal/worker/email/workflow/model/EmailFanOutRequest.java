@@ -0,0 +1,108 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.email.workflow.model;
+
+import com.kuflow.temporal.activity.email.model.Email;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EmailFanOutRequest {
+
+    private Email email;
+
+    private List<String> recipients = new ArrayList<>();
+
+    private int parallelism;
+
+    private int sendsPerRun;
+
+    private int sent;
+
+    private List<String> failedRecipients = new ArrayList<>();
+
+    /**
+     * @return email sent to every recipient, its {@code to} is ignored
+     */
+    public Email getEmail() {
+        return this.email;
+    }
+
+    public void setEmail(Email email) {
+        this.email = email;
+    }
+
+    /**
+     * @return recipients not sent yet, a continued run only gets the remaining ones
+     */
+    public List<String> getRecipients() {
+        return this.recipients;
+    }
+
+    public void setRecipients(List<String> recipients) {
+        this.recipients = recipients;
+    }
+
+    /**
+     * @return maximum send activities running at once
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return emails sent by a run before continuing as new, to bound the size of its history
+     */
+    public int getSendsPerRun() {
+        return this.sendsPerRun;
+    }
+
+    public void setSendsPerRun(int sendsPerRun) {
+        this.sendsPerRun = sendsPerRun;
+    }
+
+    /**
+     * @return emails sent by the previous runs
+     */
+    public int getSent() {
+        return this.sent;
+    }
+
+    public void setSent(int sent) {
+        this.sent = sent;
+    }
+
+    /**
+     * @return recipients that failed in the previous runs
+     */
+    public List<String> getFailedRecipients() {
+        return this.failedRecipients;
+    }
+
+    public void setFailedRecipients(List<String> failedRecipients) {
+        this.failedRecipients = failedRecipients;
+    }
+}
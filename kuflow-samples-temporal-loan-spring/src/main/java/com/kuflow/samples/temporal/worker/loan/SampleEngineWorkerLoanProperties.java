@@ -22,6 +22,9 @@
  */
 package com.kuflow.samples.temporal.worker.loan;
 
+import com.kuflow.samples.common.currency.ExchangeRateCache;
+import com.kuflow.samples.common.currency.ExchangeRateClient;
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
@@ -29,16 +32,34 @@ public class SampleEngineWorkerLoanProperties {
 
     private final TemporalProperties temporal = new TemporalProperties();
 
+    private final CurrencyProperties currency = new CurrencyProperties();
+
+    private final TracingProperties tracing = new TracingProperties();
+
     public TemporalProperties getTemporal() {
         return this.temporal;
     }
 
+    public CurrencyProperties getCurrency() {
+        return this.currency;
+    }
+
+    public TracingProperties getTracing() {
+        return this.tracing;
+    }
+
     public static final class TemporalProperties {
 
         private String target;
 
         private String kuflowQueue;
 
+        /**
+         * Time given to the activities in flight to finish on shutdown, polling stops at once. The ones still running
+         * after it are handed off to another worker.
+         */
+        private Duration shutdownBudget = Duration.ofMinutes(1);
+
         public String getTarget() {
             return this.target;
         }
@@ -54,5 +75,59 @@ public class SampleEngineWorkerLoanProperties {
         public void setKuflowQueue(String kuflowQueue) {
             this.kuflowQueue = kuflowQueue;
         }
+
+        public Duration getShutdownBudget() {
+            return this.shutdownBudget;
+        }
+
+        public void setShutdownBudget(Duration shutdownBudget) {
+            this.shutdownBudget = shutdownBudget;
+        }
+    }
+
+    public static final class CurrencyProperties {
+
+        /**
+         * Endpoint of the conversion tables, {@code %s} is replaced with the base currency.
+         */
+        private String endpoint = ExchangeRateClient.DEFAULT_ENDPOINT;
+
+        /**
+         * Time a conversion table is reused before fetching it again.
+         */
+        private Duration ttl = ExchangeRateCache.DEFAULT_TTL;
+
+        public String getEndpoint() {
+            return this.endpoint;
+        }
+
+        public void setEndpoint(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public Duration getTtl() {
+            return this.ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static final class TracingProperties {
+
+        /**
+         * File the spans are appended to, one JSON document per line. Meant for local testing, the OTLP exporter is
+         * configured with {@code management.otlp.tracing.endpoint}.
+         */
+        private String file;
+
+        public String getFile() {
+            return this.file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
     }
 }
@@ -22,11 +22,19 @@
  */
 package com.kuflow.samples.temporal.worker.loan;
 
+import com.kuflow.samples.common.jfr.ActivityEventsInterceptor;
+import com.kuflow.samples.common.metrics.ActivityMetricsInterceptor;
+import com.kuflow.samples.common.metrics.WorkflowTimingInterceptor;
+import com.kuflow.samples.common.temporal.WorkerDrainInterceptor;
+import com.kuflow.samples.common.temporal.WorkerInterceptors;
+import com.kuflow.samples.common.tracing.TemporalTracing;
 import com.kuflow.samples.temporal.worker.loan.activity.CurrencyConversionActivities;
 import com.kuflow.samples.temporal.worker.loan.workflow.SampleEngineWorkerLoanWorkflowImpl;
 import com.kuflow.temporal.activity.datasource.DataSourceActivities;
 import com.kuflow.temporal.activity.kuflow.KuFlowActivities;
 import com.kuflow.temporal.worker.connection.KuFlowTemporalConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,18 +57,28 @@ public class TemporalBootstrap implements InitializingBean, DisposableBean {
 
     private final SampleEngineWorkerLoanProperties sampleEngineWorkerLoanProperties;
 
+    private final MeterRegistry meterRegistry;
+
+    private final OpenTelemetry openTelemetry;
+
+    private final WorkerDrainInterceptor workerDrainInterceptor = new WorkerDrainInterceptor();
+
     public TemporalBootstrap(
         KuFlowTemporalConnection kuFlowTemporalConnection,
         KuFlowActivities kuFlowActivities,
         CurrencyConversionActivities currencyConversionActivities,
         DataSourceActivities dataSourceActivities,
-        SampleEngineWorkerLoanProperties sampleEngineWorkerLoanProperties
+        SampleEngineWorkerLoanProperties sampleEngineWorkerLoanProperties,
+        MeterRegistry meterRegistry,
+        OpenTelemetry openTelemetry
     ) {
         this.kuFlowTemporalConnection = kuFlowTemporalConnection;
         this.kuFlowActivities = kuFlowActivities;
         this.currencyConversionActivities = currencyConversionActivities;
         this.dataSourceActivities = dataSourceActivities;
         this.sampleEngineWorkerLoanProperties = sampleEngineWorkerLoanProperties;
+        this.meterRegistry = meterRegistry;
+        this.openTelemetry = openTelemetry;
     }
 
     @Override
@@ -71,11 +89,26 @@ public class TemporalBootstrap implements InitializingBean, DisposableBean {
 
     @Override
     public void destroy() {
+        this.workerDrainInterceptor.drain(
+            this.kuFlowTemporalConnection.getWorkerFactory(),
+            this.sampleEngineWorkerLoanProperties.getTemporal().getShutdownBudget()
+        );
         this.kuFlowTemporalConnection.shutdown(1, TimeUnit.MINUTES);
         LOGGER.info("Temporal connection shutdown");
     }
 
     private void startWorkers() {
+        this.kuFlowTemporalConnection.configureWorkerFactory(builder ->
+            WorkerInterceptors.append(
+                builder,
+                TemporalTracing.workerInterceptor(this.openTelemetry),
+                new ActivityMetricsInterceptor(this.meterRegistry),
+                new WorkflowTimingInterceptor(this.meterRegistry),
+                new ActivityEventsInterceptor(),
+                this.workerDrainInterceptor
+            )
+        );
+
         this.kuFlowTemporalConnection.configureWorker(builder ->
             builder
                 .withTaskQueue(this.sampleEngineWorkerLoanProperties.getTemporal().getKuflowQueue())
@@ -22,50 +22,29 @@
  */
 package com.kuflow.samples.temporal.worker.loan.activity;
 
+import com.kuflow.samples.common.currency.CurrencyConverter;
+import com.kuflow.samples.common.currency.UnsupportedCurrencyException;
 import io.temporal.failure.ApplicationFailure;
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestClient;
 
 @Component
 public class CurrencyConversionActivitiesImpl implements CurrencyConversionActivities {
 
-    private final RestClient restClient;
+    private final CurrencyConverter currencyConverter;
 
-    public CurrencyConversionActivitiesImpl(RestClient.Builder restClientBuilder) {
-        this.restClient = restClientBuilder.build();
+    public CurrencyConversionActivitiesImpl(CurrencyConverter currencyConverter) {
+        this.currencyConverter = currencyConverter;
     }
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     @Override
     public String convert(String amountText, String from, String to) {
         BigDecimal amount = new BigDecimal(amountText);
 
-        String fromTransformed = this.transformCurrencyCode(from);
-        String toTransformed = this.transformCurrencyCode(to);
-        String endpoint = String.format(
-            "https://cdn.jsdelivr.net/npm/@fawazahmed0/currency-api@latest/v1/currencies/%s.json",
-            fromTransformed
-        );
-
-        ParameterizedTypeReference<HashMap<String, Object>> responseType = new ParameterizedTypeReference<>() {};
-        HashMap<String, Object> response = this.restClient.get().uri(endpoint).retrieve().body(responseType);
-
-        Map<String, Double> conversionTable = (Map) response.get(fromTransformed);
-        Double conversion = conversionTable.get(toTransformed);
-
-        return amount.multiply(BigDecimal.valueOf(conversion)).toPlainString();
-    }
-
-    private String transformCurrencyCode(String currency) {
-        return switch (currency) {
-            case "EUR" -> "eur";
-            case "USD" -> "usd";
-            case "GBP" -> "gbp";
-            default -> throw ApplicationFailure.newNonRetryableFailure("Unsupported currency " + currency, "CurrencyConversion");
-        };
+        try {
+            return this.currencyConverter.convert(amount, from, to).toPlainString();
+        } catch (UnsupportedCurrencyException e) {
+            throw ApplicationFailure.newNonRetryableFailure(e.getMessage(), "CurrencyConversion");
+        }
     }
 }
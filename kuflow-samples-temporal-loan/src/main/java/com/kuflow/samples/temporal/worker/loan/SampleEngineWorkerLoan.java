@@ -22,42 +22,53 @@
  */
 package com.kuflow.samples.temporal.worker.loan;
 
-import static java.util.Collections.enumeration;
-import static java.util.stream.Collectors.joining;
-
 import com.kuflow.rest.KuFlowRestClient;
 import com.kuflow.rest.KuFlowRestClientBuilder;
+import com.kuflow.samples.common.currency.CurrencyConverter;
+import com.kuflow.samples.common.currency.ExchangeRateCache;
+import com.kuflow.samples.common.currency.JdkExchangeRateClient;
+import com.kuflow.samples.common.jfr.ActivityEventsInterceptor;
+import com.kuflow.samples.common.jfr.KuFlowHttpEventsPolicy;
+import com.kuflow.samples.common.metrics.ActivityMetricsInterceptor;
+import com.kuflow.samples.common.metrics.WorkflowTimingInterceptor;
+import com.kuflow.samples.common.temporal.ClientInterceptors;
+import com.kuflow.samples.common.temporal.FirstPollInterceptor;
+import com.kuflow.samples.common.temporal.WorkerDrainInterceptor;
+import com.kuflow.samples.common.temporal.WorkerInterceptors;
+import com.kuflow.samples.common.tracing.TemporalTracing;
+import com.kuflow.samples.temporal.worker.loan.SampleEngineWorkerLoanProperties.CurrencyProperties;
 import com.kuflow.samples.temporal.worker.loan.SampleEngineWorkerLoanProperties.KuFlowApiProperties;
 import com.kuflow.samples.temporal.worker.loan.activity.CurrencyConversionActivities;
 import com.kuflow.samples.temporal.worker.loan.activity.CurrencyConversionActivitiesImpl;
 import com.kuflow.samples.temporal.worker.loan.activity.DataSourceActivitiesImpl;
 import com.kuflow.samples.temporal.worker.loan.common.BearerAuthenticationCredential;
+import com.kuflow.samples.temporal.worker.loan.common.OpenTelemetryFactory;
+import com.kuflow.samples.temporal.worker.loan.common.PrometheusMetricsServer;
 import com.kuflow.samples.temporal.worker.loan.workflow.SampleEngineWorkerLoanWorkflowImpl;
 import com.kuflow.temporal.activity.datasource.DataSourceActivities;
 import com.kuflow.temporal.activity.kuflow.KuFlowActivities;
 import com.kuflow.temporal.activity.kuflow.KuFlowActivitiesImpl;
 import com.kuflow.temporal.worker.connection.KuFlowTemporalConnection;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.SequenceInputStream;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import java.time.Duration;
 import java.util.Arrays;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.yaml.snakeyaml.LoaderOptions;
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.Constructor;
-import org.yaml.snakeyaml.introspector.Property;
-import org.yaml.snakeyaml.introspector.PropertyUtils;
 
 public class SampleEngineWorkerLoan {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SampleEngineWorkerLoan.class);
 
     public static void main(String[] args) {
-        SampleEngineWorkerLoanProperties properties = loadConfiguration();
+        boolean exitAfterFirstPoll = Arrays.asList(args).contains(FirstPollInterceptor.ARG_EXIT_AFTER_FIRST_POLL);
+
+        long configurationStart = System.nanoTime();
+        SampleEngineWorkerLoanProperties properties = SampleEngineWorkerLoanPropertiesBinder.load();
+        LOGGER.info("Configuration loaded in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - configurationStart));
 
         KuFlowApiProperties apiProperties = properties.getKuflow().getApi();
         KuFlowRestClient kuFlowRestClient = new KuFlowRestClientBuilder()
@@ -66,16 +77,49 @@ public class SampleEngineWorkerLoan {
             .credential(apiProperties.getToken() != null ? new BearerAuthenticationCredential(apiProperties.getToken()) : null)
             .endpoint(apiProperties.getEndpoint())
             .allowInsecureConnection(apiProperties.getEndpoint() != null && apiProperties.getEndpoint().startsWith("http://"))
+            .addPolicy(new KuFlowHttpEventsPolicy())
             .buildClient();
 
+        CurrencyProperties currencyProperties = properties.getCurrency();
+        CurrencyConverter currencyConverter = new CurrencyConverter(
+            new ExchangeRateCache(
+                new JdkExchangeRateClient(currencyProperties.getEndpoint(), Duration.ofSeconds(60)),
+                currencyProperties.getTtl()
+            )
+        );
+
+        PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        PrometheusMetricsServer metricsServer = properties.getMetrics().getPort() > 0
+            ? PrometheusMetricsServer.start(meterRegistry, properties.getMetrics().getPort())
+            : null;
+
+        OpenTelemetry openTelemetry = OpenTelemetryFactory.create("kuflow-samples-temporal-loan", properties.getTracing());
+
+        WorkerDrainInterceptor workerDrainInterceptor = new WorkerDrainInterceptor();
+
         KuFlowTemporalConnection kuFlowTemporalConnection = KuFlowTemporalConnection.instance(kuFlowRestClient)
             .withInstallationId(properties.getTemporal().getInstallationId())
             .withTenantId(properties.getTemporal().getTenantId())
             .withRobotIds(properties.getTemporal().getRobotIds())
-            .configureWorkflowServiceStubs(builder -> builder.setTarget(properties.getTemporal().getTarget()))
+            .configureWorkflowServiceStubs(builder ->
+                builder
+                    .setTarget(properties.getTemporal().getTarget())
+                    .addGrpcClientInterceptor(new FirstPollInterceptor(exitAfterFirstPoll))
+            )
+            .configureWorkflowClient(builder -> ClientInterceptors.append(builder, TemporalTracing.clientInterceptor(openTelemetry)))
+            .configureWorkerFactory(builder ->
+                WorkerInterceptors.append(
+                    builder,
+                    TemporalTracing.workerInterceptor(openTelemetry),
+                    new ActivityMetricsInterceptor(meterRegistry),
+                    new WorkflowTimingInterceptor(meterRegistry),
+                    new ActivityEventsInterceptor(),
+                    workerDrainInterceptor
+                )
+            )
             .configureWorker(builder -> {
                 KuFlowActivities kuFlowActivities = new KuFlowActivitiesImpl(kuFlowRestClient);
-                CurrencyConversionActivities conversionActivities = new CurrencyConversionActivitiesImpl();
+                CurrencyConversionActivities conversionActivities = new CurrencyConversionActivitiesImpl(currencyConverter);
                 DataSourceActivities dataSourceActivities = new DataSourceActivitiesImpl();
 
                 builder
@@ -97,49 +141,16 @@ public class SampleEngineWorkerLoan {
         );
         Runtime.getRuntime().addShutdownHook(
             new Thread(() -> {
+                workerDrainInterceptor.drain(kuFlowTemporalConnection.getWorkerFactory(), properties.getTemporal().getShutdownBudget());
                 kuFlowTemporalConnection.shutdown(1, TimeUnit.MINUTES);
+                if (metricsServer != null) {
+                    metricsServer.close();
+                }
+                if (openTelemetry instanceof OpenTelemetrySdk openTelemetrySdk) {
+                    openTelemetrySdk.close();
+                }
                 LOGGER.info("Shutting down ...");
             })
         );
     }
-
-    private static SampleEngineWorkerLoanProperties loadConfiguration() {
-        Constructor constructor = new Constructor(SampleEngineWorkerLoanProperties.class, new LoaderOptions());
-        constructor.setPropertyUtils(
-            new PropertyUtils() {
-                @Override
-                public Property getProperty(Class<?> type, String name) {
-                    name = Arrays.stream(name.split("-"))
-                        .map(s -> Character.toUpperCase(s.charAt(0)) + s.substring(1).toLowerCase())
-                        .collect(joining());
-                    name = Character.toLowerCase(name.charAt(0)) + name.substring(1);
-                    return super.getProperty(type, name);
-                }
-            }
-        );
-
-        Yaml yaml = new Yaml(constructor);
-
-        List<InputStream> streams = new LinkedList<>();
-
-        loadConfigurationFile("/config/application.yaml", streams);
-        loadConfigurationFile("/config/application-local.yaml", streams);
-
-        try (InputStream inputStream = new SequenceInputStream(enumeration(streams))) {
-            return yaml.load(inputStream);
-        } catch (IOException e) {
-            LOGGER.error("Error reading configurations", e);
-            throw new RuntimeException(e);
-        }
-    }
-
-    private static void loadConfigurationFile(String name, List<InputStream> streams) {
-        InputStream inputApplication = SampleEngineWorkerLoan.class.getResourceAsStream(name);
-        if (inputApplication != null) {
-            LOGGER.info("Loading configuration file {}", name);
-            streams.add(inputApplication);
-        } else {
-            LOGGER.warn("Configuration file {} not found", name);
-        }
-    }
 }
@@ -22,6 +22,9 @@
  */
 package com.kuflow.samples.temporal.worker.loan;
 
+import com.kuflow.samples.common.currency.ExchangeRateCache;
+import com.kuflow.samples.common.currency.ExchangeRateClient;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -31,6 +34,12 @@ public class SampleEngineWorkerLoanProperties {
 
     private TemporalProperties temporal = new TemporalProperties();
 
+    private CurrencyProperties currency = new CurrencyProperties();
+
+    private MetricsProperties metrics = new MetricsProperties();
+
+    private TracingProperties tracing = new TracingProperties();
+
     public KuFlowProperties getKuflow() {
         return this.kuflow;
     }
@@ -47,6 +56,30 @@ public class SampleEngineWorkerLoanProperties {
         this.temporal = temporal;
     }
 
+    public CurrencyProperties getCurrency() {
+        return this.currency;
+    }
+
+    public void setCurrency(CurrencyProperties currency) {
+        this.currency = currency;
+    }
+
+    public MetricsProperties getMetrics() {
+        return this.metrics;
+    }
+
+    public void setMetrics(MetricsProperties metrics) {
+        this.metrics = metrics;
+    }
+
+    public TracingProperties getTracing() {
+        return this.tracing;
+    }
+
+    public void setTracing(TracingProperties tracing) {
+        this.tracing = tracing;
+    }
+
     public static final class KuFlowProperties {
 
         private KuFlowApiProperties api = new KuFlowApiProperties();
@@ -115,6 +148,12 @@ public class SampleEngineWorkerLoanProperties {
 
         private String kuflowQueue;
 
+        /**
+         * Time given to the activities in flight to finish on shutdown, polling stops at once. The ones still running
+         * after it are handed off to another worker.
+         */
+        private Duration shutdownBudget = Duration.ofMinutes(1);
+
         public UUID getInstallationId() {
             return this.installationId;
         }
@@ -154,5 +193,84 @@ public class SampleEngineWorkerLoanProperties {
         public void setKuflowQueue(String kuflowQueue) {
             this.kuflowQueue = kuflowQueue;
         }
+
+        public Duration getShutdownBudget() {
+            return this.shutdownBudget;
+        }
+
+        public void setShutdownBudget(Duration shutdownBudget) {
+            this.shutdownBudget = shutdownBudget;
+        }
+    }
+
+    public static final class CurrencyProperties {
+
+        private String endpoint = ExchangeRateClient.DEFAULT_ENDPOINT;
+
+        /**
+         * ISO-8601 duration a conversion table is reused before fetching it again, ie: PT1H.
+         */
+        private Duration ttl = ExchangeRateCache.DEFAULT_TTL;
+
+        public String getEndpoint() {
+            return this.endpoint;
+        }
+
+        public void setEndpoint(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public Duration getTtl() {
+            return this.ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static final class MetricsProperties {
+
+        /**
+         * Port serving the Prometheus metrics on {@code /metrics}, 0 disables it.
+         */
+        private int port = 8081;
+
+        public int getPort() {
+            return this.port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
+    }
+
+    public static final class TracingProperties {
+
+        /**
+         * OTLP/HTTP traces endpoint, ie: http://localhost:4318/v1/traces.
+         */
+        private String endpoint;
+
+        /**
+         * File the spans are appended to, one JSON document per line.
+         */
+        private String file;
+
+        public String getEndpoint() {
+            return this.endpoint;
+        }
+
+        public void setEndpoint(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public String getFile() {
+            return this.file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
     }
 }
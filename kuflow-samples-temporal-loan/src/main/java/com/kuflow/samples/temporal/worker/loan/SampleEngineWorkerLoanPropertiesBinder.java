@@ -0,0 +1,200 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.loan;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+/**
+ * Bind {@link SampleEngineWorkerLoanProperties} from the configuration files and the environment.
+ *
+ * <p>The YAML files are read as plain maps and every key is bound through a fixed table of setters, so there is no
+ * bean introspection nor name conversion at startup. Files are merged key by key in order, and an environment variable
+ * named as the key in upper case with dots and dashes replaced by underscores overrides both, ie:
+ * {@code TEMPORAL_KUFLOW_QUEUE} for {@code temporal.kuflow-queue}. Lists are given in the environment separated by
+ * commas. A key of a file that is not in the table fails the startup instead of being ignored.
+ */
+public final class SampleEngineWorkerLoanPropertiesBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SampleEngineWorkerLoanPropertiesBinder.class);
+
+    public static final List<String> CONFIGURATION_FILES = List.of("/config/application.yaml", "/config/application-local.yaml");
+
+    private static final Map<String, BiConsumer<SampleEngineWorkerLoanProperties, Object>> BINDINGS = bindings();
+
+    private static final Map<String, String> ENVIRONMENT_VARIABLES = environmentVariables();
+
+    private SampleEngineWorkerLoanPropertiesBinder() {
+        // Utility class
+    }
+
+    public static SampleEngineWorkerLoanProperties load() {
+        return load(CONFIGURATION_FILES, System.getenv());
+    }
+
+    /**
+     * @param files classpath resources read in order, missing ones are skipped
+     * @param environment environment variables overriding the files
+     */
+    public static SampleEngineWorkerLoanProperties load(List<String> files, Map<String, String> environment) {
+        Yaml yaml = new Yaml(new SafeConstructor(new LoaderOptions()));
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String file : files) {
+            try (InputStream inputStream = SampleEngineWorkerLoanPropertiesBinder.class.getResourceAsStream(file)) {
+                if (inputStream == null) {
+                    LOGGER.warn("Configuration file {} not found", file);
+                    continue;
+                }
+
+                LOGGER.info("Loading configuration file {}", file);
+                Map<String, Object> fileValues = new LinkedHashMap<>();
+                flatten("", yaml.load(inputStream), fileValues);
+                checkKeys(file, fileValues.keySet());
+                values.putAll(fileValues);
+            } catch (IOException e) {
+                LOGGER.error("Error reading configurations", e);
+                throw new IllegalStateException("Error reading configuration file " + file, e);
+            }
+        }
+
+        ENVIRONMENT_VARIABLES.forEach((variable, key) -> {
+            String value = environment.get(variable);
+            if (value != null) {
+                values.put(key, value);
+            }
+        });
+
+        SampleEngineWorkerLoanProperties properties = new SampleEngineWorkerLoanProperties();
+        values.forEach((key, value) -> {
+            if (value == null) {
+                return;
+            }
+
+            try {
+                BINDINGS.get(key).accept(properties, value);
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Invalid value '%s' for configuration key '%s'".formatted(value, key), e);
+            }
+        });
+
+        return properties;
+    }
+
+    private static void flatten(String prefix, Object node, Map<String, Object> values) {
+        if (node instanceof Map<?, ?> map) {
+            map.forEach((key, value) -> flatten(prefix.isEmpty() ? String.valueOf(key) : prefix + "." + key, value, values));
+        } else if (!prefix.isEmpty()) {
+            values.put(prefix, node);
+        }
+    }
+
+    private static void checkKeys(String file, Set<String> keys) {
+        Set<String> unknownKeys = new TreeSet<>();
+        for (String key : keys) {
+            // Groups with all their keys commented out, as "tracing:", are read as null values
+            if (!BINDINGS.containsKey(key) && BINDINGS.keySet().stream().noneMatch(it -> it.startsWith(key + "."))) {
+                unknownKeys.add(key);
+            }
+        }
+
+        if (!unknownKeys.isEmpty()) {
+            throw new IllegalStateException(
+                "Unknown configuration keys %s in %s, expected some of %s".formatted(unknownKeys, file, new TreeSet<>(BINDINGS.keySet()))
+            );
+        }
+    }
+
+    private static Map<String, BiConsumer<SampleEngineWorkerLoanProperties, Object>> bindings() {
+        Map<String, BiConsumer<SampleEngineWorkerLoanProperties, Object>> bindings = new LinkedHashMap<>();
+        bindings.put("kuflow.api.endpoint", (properties, value) -> properties.getKuflow().getApi().setEndpoint(asString(value)));
+        bindings.put("kuflow.api.client-id", (properties, value) -> properties.getKuflow().getApi().setClientId(asString(value)));
+        bindings.put("kuflow.api.client-secret", (properties, value) -> properties.getKuflow().getApi().setClientSecret(asString(value)));
+        bindings.put("kuflow.api.token", (properties, value) -> properties.getKuflow().getApi().setToken(asString(value)));
+        bindings.put("temporal.installation-id", (properties, value) -> properties.getTemporal().setInstallationId(asUuid(value)));
+        bindings.put("temporal.tenant-id", (properties, value) -> properties.getTemporal().setTenantId(asUuid(value)));
+        bindings.put("temporal.robot-ids", (properties, value) -> properties.getTemporal().setRobotIds(asUuids(value)));
+        bindings.put("temporal.target", (properties, value) -> properties.getTemporal().setTarget(asString(value)));
+        bindings.put("temporal.kuflow-queue", (properties, value) -> properties.getTemporal().setKuflowQueue(asString(value)));
+        bindings.put("temporal.shutdown-budget", (properties, value) -> properties.getTemporal().setShutdownBudget(asDuration(value)));
+        bindings.put("currency.endpoint", (properties, value) -> properties.getCurrency().setEndpoint(asString(value)));
+        bindings.put("currency.ttl", (properties, value) -> properties.getCurrency().setTtl(asDuration(value)));
+        bindings.put("metrics.port", (properties, value) -> properties.getMetrics().setPort(asInt(value)));
+        bindings.put("tracing.endpoint", (properties, value) -> properties.getTracing().setEndpoint(asString(value)));
+        bindings.put("tracing.file", (properties, value) -> properties.getTracing().setFile(asString(value)));
+
+        return bindings;
+    }
+
+    private static Map<String, String> environmentVariables() {
+        Map<String, String> environmentVariables = new LinkedHashMap<>();
+        for (String key : BINDINGS.keySet()) {
+            environmentVariables.put(key.replace('.', '_').replace('-', '_').toUpperCase(Locale.ROOT), key);
+        }
+
+        return environmentVariables;
+    }
+
+    private static String asString(Object value) {
+        return value.toString();
+    }
+
+    private static UUID asUuid(Object value) {
+        return UUID.fromString(value.toString().trim());
+    }
+
+    private static Duration asDuration(Object value) {
+        return Duration.parse(value.toString().trim());
+    }
+
+    private static int asInt(Object value) {
+        return value instanceof Number number ? number.intValue() : Integer.parseInt(value.toString().trim());
+    }
+
+    private static List<UUID> asUuids(Object value) {
+        List<?> items = value instanceof List<?> list ? list : Arrays.asList(value.toString().split(","));
+
+        List<UUID> uuids = new ArrayList<>(items.size());
+        for (Object item : items) {
+            uuids.add(asUuid(item));
+        }
+
+        return uuids;
+    }
+}
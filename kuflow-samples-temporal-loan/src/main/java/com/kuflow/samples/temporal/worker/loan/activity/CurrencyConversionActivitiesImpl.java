@@ -20,55 +20,31 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
  * THE SOFTWARE.
  */
-
 package com.kuflow.samples.temporal.worker.loan.activity;
 
-import com.google.common.reflect.TypeToken;
-import com.google.gson.Gson;
+import com.kuflow.samples.common.currency.CurrencyConverter;
+import com.kuflow.samples.common.currency.UnsupportedCurrencyException;
 import io.temporal.failure.ApplicationFailure;
-import java.lang.reflect.Type;
 import java.math.BigDecimal;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
-import java.util.Map;
-import java.util.Scanner;
 
 public class CurrencyConversionActivitiesImpl implements CurrencyConversionActivities {
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private final CurrencyConverter currencyConverter;
+
+    public CurrencyConversionActivitiesImpl(CurrencyConverter currencyConverter) {
+        this.currencyConverter = currencyConverter;
+    }
+
     @Override
     public String convert(String amountText, String from, String to) {
         BigDecimal amount = new BigDecimal(amountText);
 
-        String fromTransformed = this.transformCurrencyCode(from);
-        String toTransformed = this.transformCurrencyCode(to);
-        String endpoint = String.format(
-            "https://cdn.jsdelivr.net/npm/@fawazahmed0/currency-api@latest/v1/currencies/%s.json",
-            fromTransformed
-        );
-
-        try (Scanner scanner = new Scanner(new URL(endpoint).openStream(), StandardCharsets.UTF_8).useDelimiter("\\A")) {
-            String json = scanner.next();
-
-            Type mapType = new TypeToken<Map<String, Object>>() {}.getType();
-            Gson gson = new Gson();
-            Map<String, Object> response = gson.fromJson(json, mapType);
-
-            Map<String, Double> conversionTable = (Map) response.get(fromTransformed);
-            Double conversion = conversionTable.get(toTransformed);
-
-            return amount.multiply(BigDecimal.valueOf(conversion)).toPlainString();
+        try {
+            return this.currencyConverter.convert(amount, from, to).toPlainString();
+        } catch (UnsupportedCurrencyException e) {
+            throw ApplicationFailure.newNonRetryableFailure(e.getMessage(), "CurrencyConversion");
         } catch (Exception e) {
             throw ApplicationFailure.newNonRetryableFailure(e.getMessage(), "CurrencyConversionActivities.error");
         }
     }
-
-    private String transformCurrencyCode(String currency) {
-        return switch (currency) {
-            case "EUR" -> "eur";
-            case "USD" -> "usd";
-            case "GBP" -> "gbp";
-            default -> throw ApplicationFailure.newNonRetryableFailure("Unsupported currency " + currency, "CurrencyConversion");
-        };
-    }
 }
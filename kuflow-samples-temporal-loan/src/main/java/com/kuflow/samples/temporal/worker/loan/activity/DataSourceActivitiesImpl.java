@@ -35,6 +35,7 @@ import io.temporal.failure.ApplicationFailure;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +44,20 @@ public class DataSourceActivitiesImpl implements DataSourceActivities {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DataSourceActivitiesImpl.class);
 
+    private final Supplier<List<DataSourceItem>> products;
+
+    public DataSourceActivitiesImpl() {
+        // Mocks are built on the first query, they are not needed to start polling
+        this.products = () -> DataSourceMocks.MOCK_PRODUCTS;
+    }
+
+    /**
+     * @param products catalogue served by the data source
+     */
+    public DataSourceActivitiesImpl(List<DataSourceItem> products) {
+        this.products = () -> products;
+    }
+
     @Override
     public DataSourceQueryResponse runQuery(DataSourceQueryRequest request) {
         LOGGER.info("Started data source process {}", request.getCode());
@@ -68,7 +83,7 @@ public class DataSourceActivitiesImpl implements DataSourceActivities {
         }
 
         // Extract all valid product IDs from mock data
-        List<String> validProductIds = DataSourceMocks.MOCK_PRODUCTS.stream().map(DataSourceItem::getId).filter(Objects::nonNull).toList();
+        List<String> validProductIds = this.products.get().stream().map(DataSourceItem::getId).filter(Objects::nonNull).toList();
 
         // Check if all values exist in the product data
         for (Object value : request.getValues()) {
@@ -129,7 +144,7 @@ public class DataSourceActivitiesImpl implements DataSourceActivities {
         String query = workflowRequest.getQuery();
 
         // Filter products by query if provided
-        List<DataSourceItem> filteredProducts = this.filterProductsByQuery(DataSourceMocks.MOCK_PRODUCTS, query);
+        List<DataSourceItem> filteredProducts = this.filterProductsByQuery(this.products.get(), query);
 
         // Calculate pagination metadata
         long totalElements = filteredProducts.size();
@@ -0,0 +1,74 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.loan.common;
+
+import com.kuflow.samples.common.tracing.FileSpanExporter;
+import com.kuflow.samples.temporal.worker.loan.SampleEngineWorkerLoanProperties.TracingProperties;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import java.nio.file.Path;
+
+/**
+ * Build the OpenTelemetry SDK of the worker, the equivalent of the Spring Boot tracing autoconfiguration.
+ */
+public final class OpenTelemetryFactory {
+
+    private OpenTelemetryFactory() {
+        // Utility class
+    }
+
+    /**
+     * @return SDK exporting to the configured OTLP endpoint and file, or a no-op instance when none is configured
+     */
+    public static OpenTelemetry create(String serviceName, TracingProperties tracingProperties) {
+        if (tracingProperties.getEndpoint() == null && tracingProperties.getFile() == null) {
+            return OpenTelemetry.noop();
+        }
+
+        SdkTracerProviderBuilder tracerProvider = SdkTracerProvider.builder().setResource(
+            Resource.getDefault().merge(Resource.create(Attributes.of(AttributeKey.stringKey("service.name"), serviceName)))
+        );
+        if (tracingProperties.getEndpoint() != null) {
+            tracerProvider.addSpanProcessor(
+                BatchSpanProcessor.builder(OtlpHttpSpanExporter.builder().setEndpoint(tracingProperties.getEndpoint()).build()).build()
+            );
+        }
+        if (tracingProperties.getFile() != null) {
+            tracerProvider.addSpanProcessor(BatchSpanProcessor.builder(new FileSpanExporter(Path.of(tracingProperties.getFile()))).build());
+        }
+
+        return OpenTelemetrySdk.builder()
+            .setTracerProvider(tracerProvider.build())
+            .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+            .build();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.uivision;
+
+import com.kuflow.samples.common.temporal.TemporalRuntimeHints;
+import com.kuflow.samples.temporal.worker.uivision.activity.UIVisionRobotActivities;
+import com.kuflow.samples.temporal.worker.uivision.activity.model.MacroProgress;
+import com.kuflow.samples.temporal.worker.uivision.workflow.UIVisionSampleWorkflowImpl;
+import com.kuflow.temporal.activity.kuflow.KuFlowActivities;
+import com.kuflow.temporal.activity.kuflow.KuFlowActivitiesImpl;
+import com.kuflow.temporal.activity.uivision.UIVisionActivities;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Native image hints for the workflow and activities registered in {@link TemporalBootstrap}.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        TemporalRuntimeHints.registerWorkflow(hints, UIVisionSampleWorkflowImpl.class);
+
+        TemporalRuntimeHints.registerActivityStub(hints, KuFlowActivities.class);
+        TemporalRuntimeHints.registerActivityStub(hints, UIVisionActivities.class);
+
+        TemporalRuntimeHints.registerActivityImplementation(hints, KuFlowActivitiesImpl.class);
+        TemporalRuntimeHints.registerActivityImplementation(hints, UIVisionRobotActivities.class);
+
+        // Heartbeat details are not part of any activity signature
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), MacroProgress.class);
+    }
+}
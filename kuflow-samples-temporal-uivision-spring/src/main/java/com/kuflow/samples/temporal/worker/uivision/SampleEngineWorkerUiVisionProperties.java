@@ -35,6 +35,8 @@ public class SampleEngineWorkerUiVisionProperties {
 
     private final UIVisionProperties uivision = new UIVisionProperties();
 
+    private final TracingProperties tracing = new TracingProperties();
+
     public TemporalProperties getTemporal() {
         return this.temporal;
     }
@@ -43,12 +45,22 @@ public class SampleEngineWorkerUiVisionProperties {
         return this.uivision;
     }
 
+    public TracingProperties getTracing() {
+        return this.tracing;
+    }
+
     public static final class TemporalProperties {
 
         private String target;
 
         private String kuflowQueue;
 
+        /**
+         * Time given to the activities in flight to finish on shutdown, polling stops at once. The ones still running
+         * after it are handed off to another worker.
+         */
+        private Duration shutdownBudget = Duration.ofMinutes(1);
+
         public String getTarget() {
             return this.target;
         }
@@ -64,13 +76,29 @@ public class SampleEngineWorkerUiVisionProperties {
         public void setKuflowQueue(String kuflowQueue) {
             this.kuflowQueue = kuflowQueue;
         }
+
+        public Duration getShutdownBudget() {
+            return this.shutdownBudget;
+        }
+
+        public void setShutdownBudget(Duration shutdownBudget) {
+            this.shutdownBudget = shutdownBudget;
+        }
     }
 
-    public class UIVisionProperties {
+    public static final class UIVisionProperties {
 
+        /**
+         * Browser with the UI.Vision extension, arguments separated by spaces. The robots launch it with their own
+         * profile, see {@link RobotPoolProperties#getProfileArgument()}.
+         */
         @NotBlank
         private String command;
 
+        /**
+         * Directory with a logs directory per robot, where UI.Vision saves the log of every macro and the browser its
+         * output.
+         */
         @NotBlank
         private String logDirectory;
 
@@ -87,6 +115,26 @@ public class SampleEngineWorkerUiVisionProperties {
         @NotNull
         private Duration executionTimeout;
 
+        /**
+         * Maximum time between two progress lines of a macro, including the wait for a robot. The macro is failed
+         * after it, and it is also the heartbeat timeout of the activity so Temporal retries it if the worker is lost.
+         * Not set by default, as macros need to report their progress for it, see {@code cmd_var3} in the sample macro.
+         * Every progress line written with {@code XRunAndWait} starts a shell process, about 2 ms on Linux plus the
+         * round trip through the UI.Vision XModule, so macros write one per phase and the timeout is over the longest.
+         */
+        private Duration heartbeatTimeout;
+
+        /**
+         * Interval the progress lines of a macro are appended to its KuFlow task at, all of them in a single log.
+         */
+        private Duration taskLogInterval = Duration.ofSeconds(10);
+
+        private final RobotPoolProperties pool = new RobotPoolProperties();
+
+        private final WarmBrowserProperties warm = new WarmBrowserProperties();
+
+        private final UploadProperties upload = new UploadProperties();
+
         public String getCommand() {
             return this.command;
         }
@@ -150,5 +198,226 @@ public class SampleEngineWorkerUiVisionProperties {
         public void setExecutionTimeout(Duration executionTimeout) {
             this.executionTimeout = executionTimeout;
         }
+
+        public Duration getHeartbeatTimeout() {
+            return this.heartbeatTimeout;
+        }
+
+        public void setHeartbeatTimeout(Duration heartbeatTimeout) {
+            this.heartbeatTimeout = heartbeatTimeout;
+        }
+
+        public Duration getTaskLogInterval() {
+            return this.taskLogInterval;
+        }
+
+        public void setTaskLogInterval(Duration taskLogInterval) {
+            this.taskLogInterval = taskLogInterval;
+        }
+
+        public RobotPoolProperties getPool() {
+            return this.pool;
+        }
+
+        public WarmBrowserProperties getWarm() {
+            return this.warm;
+        }
+
+        public UploadProperties getUpload() {
+            return this.upload;
+        }
+    }
+
+    public static final class RobotPoolProperties {
+
+        /**
+         * Robots running macros at the same time, each one with its own browser profile and logs directory. It is also
+         * the number of activities the worker runs at once, KuFlow ones included.
+         */
+        private int size = 1;
+
+        /**
+         * Maximum time an activity waits for a free robot. The activity fails after it and is retried by Temporal,
+         * maybe on another worker.
+         */
+        private Duration maxWait = Duration.ofMinutes(5);
+
+        /**
+         * Directory with the browser profile of every robot.
+         */
+        private String profilesDirectory = "profiles";
+
+        /**
+         * Browser profile copied to the robots without one, with the UI.Vision extension installed and allowed to
+         * access file URLs. Without it, the profiles are created empty by the browser on the first run.
+         */
+        private String profileTemplate;
+
+        /**
+         * Argument giving the profile directory of the robot to the browser, {@code %s} is replaced with it. The
+         * default is the one of Chrome and Chromium, Firefox takes {@code -profile %s}.
+         */
+        private String profileArgument = "--user-data-dir=%s";
+
+        public int getSize() {
+            return this.size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public Duration getMaxWait() {
+            return this.maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public String getProfilesDirectory() {
+            return this.profilesDirectory;
+        }
+
+        public void setProfilesDirectory(String profilesDirectory) {
+            this.profilesDirectory = profilesDirectory;
+        }
+
+        public String getProfileTemplate() {
+            return this.profileTemplate;
+        }
+
+        public void setProfileTemplate(String profileTemplate) {
+            this.profileTemplate = profileTemplate;
+        }
+
+        public String getProfileArgument() {
+            return this.profileArgument;
+        }
+
+        public void setProfileArgument(String profileArgument) {
+            this.profileArgument = profileArgument;
+        }
+    }
+
+    public static final class WarmBrowserProperties {
+
+        /**
+         * Keep the browser of every robot running between macros instead of launching it for each one, the close
+         * browser and close RPA flags are ignored. Needs a Chromium based browser, the macros are opened and the
+         * browser is checked through its DevTools endpoint. Before every macro the cookies and the storage of the sites
+         * left open by the previous one are cleared, the storage of other sites it visited, the HTTP cache and the
+         * UI.Vision storage are shared by the macros of a robot.
+         */
+        private boolean enabled;
+
+        /**
+         * Macros run by a browser before it is closed and launched again, to bound the memory it leaks. A browser is
+         * also closed after any failed macro.
+         */
+        private int maxRuns = 50;
+
+        /**
+         * DevTools port of the browser of the first robot, the next robots use the following ports.
+         */
+        private int devtoolsPort = 9300;
+
+        /**
+         * Maximum time for a launched browser to answer on its DevTools port, and for a running one to answer a
+         * health check.
+         */
+        private Duration startupTimeout = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return this.enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxRuns() {
+            return this.maxRuns;
+        }
+
+        public void setMaxRuns(int maxRuns) {
+            this.maxRuns = maxRuns;
+        }
+
+        public int getDevtoolsPort() {
+            return this.devtoolsPort;
+        }
+
+        public void setDevtoolsPort(int devtoolsPort) {
+            this.devtoolsPort = devtoolsPort;
+        }
+
+        public Duration getStartupTimeout() {
+            return this.startupTimeout;
+        }
+
+        public void setStartupTimeout(Duration startupTimeout) {
+            this.startupTimeout = startupTimeout;
+        }
+    }
+
+    public static final class UploadProperties {
+
+        /**
+         * Path in the data of the task the screenshot of the macro is uploaded to.
+         */
+        private String schemaPath = "#/properties/SCREENSHOT";
+
+        /**
+         * Uploads running at the same time, the rest wait for one of them to finish.
+         */
+        private int concurrency = 4;
+
+        /**
+         * Uploads remembered to skip uploading again the same content to the same task, ie: when a retried macro takes
+         * the same screenshot.
+         */
+        private int dedupeEntries = 1000;
+
+        public String getSchemaPath() {
+            return this.schemaPath;
+        }
+
+        public void setSchemaPath(String schemaPath) {
+            this.schemaPath = schemaPath;
+        }
+
+        public int getConcurrency() {
+            return this.concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public int getDedupeEntries() {
+            return this.dedupeEntries;
+        }
+
+        public void setDedupeEntries(int dedupeEntries) {
+            this.dedupeEntries = dedupeEntries;
+        }
+    }
+
+    public static final class TracingProperties {
+
+        /**
+         * File the spans are appended to, one JSON document per line. Meant for local testing, the OTLP exporter is
+         * configured with {@code management.otlp.tracing.endpoint}.
+         */
+        private String file;
+
+        public String getFile() {
+            return this.file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
     }
 }
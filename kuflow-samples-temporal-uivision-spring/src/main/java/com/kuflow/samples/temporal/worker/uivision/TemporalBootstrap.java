@@ -22,10 +22,26 @@
  */
 package com.kuflow.samples.temporal.worker.uivision;
 
+import com.kuflow.samples.common.jfr.ActivityEventsInterceptor;
+import com.kuflow.samples.common.metrics.ActivityMetricsInterceptor;
+import com.kuflow.samples.common.metrics.WorkflowTimingInterceptor;
+import com.kuflow.samples.common.temporal.ActivityHeartbeatTimeoutInterceptor;
+import com.kuflow.samples.common.temporal.WorkerDrainInterceptor;
+import com.kuflow.samples.common.temporal.WorkerInterceptors;
+import com.kuflow.samples.common.tracing.TemporalTracing;
+import com.kuflow.samples.temporal.worker.uivision.activity.UIVisionRobotActivities;
 import com.kuflow.samples.temporal.worker.uivision.workflow.UIVisionSampleWorkflowImpl;
 import com.kuflow.temporal.activity.kuflow.KuFlowActivities;
 import com.kuflow.temporal.activity.uivision.UIVisionActivities;
 import com.kuflow.temporal.worker.connection.KuFlowTemporalConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import io.temporal.common.interceptors.WorkerInterceptor;
+import io.temporal.worker.WorkerOptions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,16 +62,26 @@ public class TemporalBootstrap implements InitializingBean, DisposableBean {
 
     private final SampleEngineWorkerUiVisionProperties sampleEngineWorkerUiVisionProperties;
 
+    private final MeterRegistry meterRegistry;
+
+    private final OpenTelemetry openTelemetry;
+
+    private final WorkerDrainInterceptor workerDrainInterceptor = new WorkerDrainInterceptor();
+
     public TemporalBootstrap(
         KuFlowTemporalConnection kuFlowTemporalConnection,
         KuFlowActivities kuFlowActivities,
         UIVisionActivities uiVisionActivities,
-        SampleEngineWorkerUiVisionProperties sampleEngineWorkerUiVisionProperties
+        SampleEngineWorkerUiVisionProperties sampleEngineWorkerUiVisionProperties,
+        MeterRegistry meterRegistry,
+        OpenTelemetry openTelemetry
     ) {
         this.kuFlowTemporalConnection = kuFlowTemporalConnection;
         this.kuFlowActivities = kuFlowActivities;
         this.uiVisionActivities = uiVisionActivities;
         this.sampleEngineWorkerUiVisionProperties = sampleEngineWorkerUiVisionProperties;
+        this.meterRegistry = meterRegistry;
+        this.openTelemetry = openTelemetry;
     }
 
     @Override
@@ -66,14 +92,45 @@ public class TemporalBootstrap implements InitializingBean, DisposableBean {
 
     @Override
     public void destroy() {
+        this.workerDrainInterceptor.drain(
+            this.kuFlowTemporalConnection.getWorkerFactory(),
+            this.sampleEngineWorkerUiVisionProperties.getTemporal().getShutdownBudget()
+        );
         this.kuFlowTemporalConnection.shutdown(1, TimeUnit.MINUTES);
         LOGGER.info("Temporal connection shutdown");
     }
 
     private void startWorkers() {
+        // From the outermost to the innermost, a later append would wrap the tracing one
+        List<WorkerInterceptor> interceptors = new ArrayList<>(
+            List.of(
+                TemporalTracing.workerInterceptor(this.openTelemetry),
+                new ActivityMetricsInterceptor(this.meterRegistry),
+                new WorkflowTimingInterceptor(this.meterRegistry),
+                new ActivityEventsInterceptor(),
+                this.workerDrainInterceptor
+            )
+        );
+
+        Duration heartbeatTimeout = this.sampleEngineWorkerUiVisionProperties.getUivision().getHeartbeatTimeout();
+        if (heartbeatTimeout != null) {
+            interceptors.add(new ActivityHeartbeatTimeoutInterceptor(Map.of(UIVisionRobotActivities.ACTIVITY_TYPE, heartbeatTimeout)));
+        }
+
+        this.kuFlowTemporalConnection.configureWorkerFactory(builder ->
+            WorkerInterceptors.append(builder, interceptors.toArray(WorkerInterceptor[]::new))
+        );
+
+        // No more activities than robots, an activity over them would wait in RobotPool.lease while another worker may
+        // have a free robot. The KuFlow activities share these slots, they are short compared with a macro.
+        WorkerOptions workerOptions = WorkerOptions.newBuilder()
+            .setMaxConcurrentActivityExecutionSize(this.sampleEngineWorkerUiVisionProperties.getUivision().getPool().getSize())
+            .build();
+
         this.kuFlowTemporalConnection.configureWorker(builder ->
             builder
                 .withTaskQueue(this.sampleEngineWorkerUiVisionProperties.getTemporal().getKuflowQueue())
+                .withWorkerOptions(workerOptions)
                 .withWorkflowImplementationTypes(UIVisionSampleWorkflowImpl.class)
                 .withActivitiesImplementations(this.kuFlowActivities)
                 .withActivitiesImplementations(this.uiVisionActivities)
@@ -23,32 +23,53 @@
 package com.kuflow.samples.temporal.worker.uivision;
 
 import com.kuflow.rest.KuFlowRestClient;
+import com.kuflow.samples.common.temporal.ClientInterceptors;
+import com.kuflow.samples.common.temporal.FirstPollInterceptor;
+import com.kuflow.samples.common.tracing.TemporalTracing;
 import com.kuflow.samples.temporal.worker.uivision.SampleEngineWorkerUiVisionProperties.TemporalProperties;
 import com.kuflow.temporal.worker.connection.KuFlowTemporalConnection;
+import io.opentelemetry.api.OpenTelemetry;
+import java.util.Arrays;
+import org.springframework.boot.ApplicationArguments;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class TemporalConfiguration {
 
     private final SampleEngineWorkerUiVisionProperties sampleEngineWorkerUiVisionProperties;
 
     private final KuFlowRestClient kuFlowRestClient;
 
+    private final OpenTelemetry openTelemetry;
+
+    private final ApplicationArguments applicationArguments;
+
     public TemporalConfiguration(
         SampleEngineWorkerUiVisionProperties sampleEngineWorkerUiVisionProperties,
-        KuFlowRestClient kuFlowRestClient
+        KuFlowRestClient kuFlowRestClient,
+        OpenTelemetry openTelemetry,
+        ApplicationArguments applicationArguments
     ) {
         this.sampleEngineWorkerUiVisionProperties = sampleEngineWorkerUiVisionProperties;
         this.kuFlowRestClient = kuFlowRestClient;
+        this.openTelemetry = openTelemetry;
+        this.applicationArguments = applicationArguments;
     }
 
     @Bean
     public KuFlowTemporalConnection kuFlowTemporalConnection() {
+        boolean exitAfterFirstPoll = Arrays.asList(this.applicationArguments.getSourceArgs()).contains(
+            FirstPollInterceptor.ARG_EXIT_AFTER_FIRST_POLL
+        );
         TemporalProperties temporalProperties = this.sampleEngineWorkerUiVisionProperties.getTemporal();
 
-        return KuFlowTemporalConnection.instance(this.kuFlowRestClient).configureWorkflowServiceStubs(builder ->
-            builder.setTarget(temporalProperties.getTarget())
-        );
+        return KuFlowTemporalConnection.instance(this.kuFlowRestClient)
+            .configureWorkflowServiceStubs(builder ->
+                builder.setTarget(temporalProperties.getTarget()).addGrpcClientInterceptor(new FirstPollInterceptor(exitAfterFirstPoll))
+            )
+            .configureWorkflowClient(builder -> ClientInterceptors.append(builder, TemporalTracing.clientInterceptor(this.openTelemetry)));
     }
 }
@@ -0,0 +1,97 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.uivision.activity;
+
+import com.kuflow.rest.KuFlowRestClient;
+import com.kuflow.rest.model.ProcessItemTaskAppendLogParams;
+import com.kuflow.rest.model.ProcessItemTaskLogLevel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Progress lines of a macro waiting to be appended to its KuFlow task. They are appended together as a single log,
+ * once per interval and when the macro ends, instead of a request per line.
+ */
+class MacroTaskLog implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MacroTaskLog.class);
+
+    private static final int MAX_LINES = 50;
+
+    private final KuFlowRestClient kuFlowRestClient;
+
+    private final UUID processItemId;
+
+    private final long intervalNanos;
+
+    private final List<String> lines = new ArrayList<>();
+
+    private long lastFlush = System.nanoTime();
+
+    MacroTaskLog(KuFlowRestClient kuFlowRestClient, UUID processItemId, Duration interval) {
+        this.kuFlowRestClient = kuFlowRestClient;
+        this.processItemId = processItemId;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    void append(List<String> lines) {
+        this.lines.addAll(lines);
+        if (this.lines.size() >= MAX_LINES) {
+            this.flush();
+        }
+    }
+
+    void flushIfDue() {
+        if (System.nanoTime() - this.lastFlush >= this.intervalNanos) {
+            this.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        this.flush();
+    }
+
+    private void flush() {
+        this.lastFlush = System.nanoTime();
+        if (this.lines.isEmpty()) {
+            return;
+        }
+
+        ProcessItemTaskAppendLogParams log = new ProcessItemTaskAppendLogParams();
+        log.setMessage(String.join("\n", this.lines));
+        log.setLevel(ProcessItemTaskLogLevel.INFO);
+        this.lines.clear();
+
+        // Progress is informative, the macro goes on if KuFlow cannot be reached
+        try {
+            this.kuFlowRestClient.getProcessItemOperations().appendProcessItemTaskLog(this.processItemId, log);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Error appending the progress of the macro to the task {}", this.processItemId, e);
+        }
+    }
+}
@@ -0,0 +1,406 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.uivision.activity;
+
+import com.kuflow.rest.KuFlowRestClient;
+import com.kuflow.samples.temporal.worker.uivision.SampleEngineWorkerUiVisionProperties;
+import com.kuflow.samples.temporal.worker.uivision.SampleEngineWorkerUiVisionProperties.UIVisionProperties;
+import com.kuflow.samples.temporal.worker.uivision.SampleEngineWorkerUiVisionProperties.WarmBrowserProperties;
+import com.kuflow.samples.temporal.worker.uivision.activity.model.MacroProgress;
+import com.kuflow.samples.temporal.worker.uivision.robot.BrowserInstance;
+import com.kuflow.samples.temporal.worker.uivision.robot.MacroProgressTail;
+import com.kuflow.samples.temporal.worker.uivision.robot.Robot;
+import com.kuflow.samples.temporal.worker.uivision.robot.RobotPool;
+import com.kuflow.samples.temporal.worker.uivision.upload.ArtifactUploader;
+import com.kuflow.temporal.activity.uivision.UIVisionActivities;
+import com.kuflow.temporal.activity.uivision.model.ExecuteUIVisionMacroRequest;
+import com.kuflow.temporal.activity.uivision.model.ExecuteUIVisionMacroResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.temporal.activity.Activity;
+import io.temporal.activity.ActivityExecutionContext;
+import io.temporal.failure.ApplicationFailure;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * KuFlow UI.Vision activity running the macro on a robot leased from {@link RobotPool}, so the worker runs as many
+ * macros at the same time as robots it has, each one in a browser with its own profile.
+ *
+ * <p>The macro receives the process item id as {@code cmd_var1}, the screenshot file of the robot as {@code cmd_var2}
+ * and a file to append its progress to as {@code cmd_var3}. Every progress line is heartbeated and appended to the
+ * KuFlow task, and with a heartbeat timeout the macro is failed when it stops writing them. It is finished when
+ * UI.Vision saves its log, whose first line tells whether it succeeded.
+ *
+ * <p>The screenshot is uploaded to the KuFlow task by the worker through {@link ArtifactUploader}, after the robot
+ * is released to run the next macro. The activity heartbeats until the upload finishes and fails when it does.
+ *
+ * <p>In warm mode every robot keeps its browser running, each macro is opened in a new tab after closing the ones of
+ * the previous macros. The browser is closed after a failed macro, after the maximum number of runs, or when it does
+ * not answer the health check made before every macro.
+ *
+ * <p>Metrics, prefixed with {@value #METRIC_PREFIX}: {@code macros} run tagged with their outcome and whether their
+ * browser was {@code launched} for them or {@code reused}, whose rates are the throughput with and without warm
+ * browsers, and the {@code browsers.launched} and {@code browsers.closed} in warm mode tagged with the reason.
+ */
+@Primary
+@Component
+public class UIVisionRobotActivities implements UIVisionActivities {
+
+    public static final String METRIC_PREFIX = "kuflow.samples.uivision";
+
+    /**
+     * Activity type of {@link #executeUIVisionMacro}, its name prefixed by the one of the interface.
+     */
+    public static final String ACTIVITY_TYPE = "KuFlow_UIVision_ExecuteUIVisionMacro";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UIVisionRobotActivities.class);
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+
+    private static final String STATUS_OK = "Status=OK";
+
+    private final RobotPool robotPool;
+
+    private final UIVisionProperties properties;
+
+    private final KuFlowRestClient kuFlowRestClient;
+
+    private final ArtifactUploader artifactUploader;
+
+    private final MeterRegistry meterRegistry;
+
+    public UIVisionRobotActivities(
+        RobotPool robotPool,
+        SampleEngineWorkerUiVisionProperties sampleEngineWorkerUiVisionProperties,
+        KuFlowRestClient kuFlowRestClient,
+        ArtifactUploader artifactUploader,
+        MeterRegistry meterRegistry
+    ) {
+        this.robotPool = robotPool;
+        this.properties = sampleEngineWorkerUiVisionProperties.getUivision();
+        this.kuFlowRestClient = kuFlowRestClient;
+        this.artifactUploader = artifactUploader;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ExecuteUIVisionMacroResponse executeUIVisionMacro(ExecuteUIVisionMacroRequest request) {
+        ActivityExecutionContext context = Activity.getExecutionContext();
+        Duration heartbeatTimeout = this.properties.getHeartbeatTimeout();
+        Duration heartbeatInterval = heartbeatTimeout != null ? heartbeatTimeout.dividedBy(2) : this.robotPool.getMaxWait();
+
+        Runnable waiting = () -> context.heartbeat(new MacroProgress(null, 0, null));
+        try {
+            Path screenshot = null;
+            try (RobotPool.Lease lease = this.robotPool.lease(heartbeatInterval, waiting)) {
+                Robot robot = lease.getRobot();
+                context.heartbeat(new MacroProgress(robot.getName(), 0, null));
+
+                LOGGER.info("Running macro {} for process item {} on {}", this.properties.getMacro(), request.getProcessItemId(), robot);
+                this.run(robot, request);
+                LOGGER.info("Finished macro {} for process item {} on {}", this.properties.getMacro(), request.getProcessItemId(), robot);
+
+                if (Files.exists(robot.getScreenshotFile())) {
+                    screenshot = this.artifactUploader.stage(robot.getScreenshotFile());
+                }
+            }
+
+            // Uploaded once the robot is released, it runs its next macro meanwhile
+            if (screenshot != null) {
+                CompletableFuture<Boolean> upload = this.artifactUploader.upload(
+                    request.getProcessItemId(),
+                    this.properties.getUpload().getSchemaPath(),
+                    screenshot
+                );
+                this.awaitUpload(context, upload, heartbeatInterval, screenshot);
+            }
+
+            return new ExecuteUIVisionMacroResponse();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Activity.wrap(e);
+        } catch (IOException | TimeoutException e) {
+            throw Activity.wrap(e);
+        }
+    }
+
+    private void awaitUpload(ActivityExecutionContext context, CompletableFuture<Boolean> upload, Duration heartbeatInterval, Path file)
+        throws InterruptedException {
+        MacroProgress progress = new MacroProgress(null, 0, "Uploading " + file.getFileName());
+        while (true) {
+            try {
+                upload.get(heartbeatInterval.toNanos(), TimeUnit.NANOSECONDS);
+
+                return;
+            } catch (TimeoutException e) {
+                context.heartbeat(progress);
+            } catch (ExecutionException e) {
+                throw Activity.wrap(e.getCause());
+            }
+        }
+    }
+
+    private void run(Robot robot, ExecuteUIVisionMacroRequest request) throws IOException, InterruptedException, TimeoutException {
+        Path logFile = robot.getLogDirectory().resolve("macro-" + request.getProcessItemId() + ".log");
+        Files.deleteIfExists(logFile);
+        Files.deleteIfExists(robot.getScreenshotFile());
+        Files.deleteIfExists(robot.getProgressFile());
+
+        long start = System.nanoTime();
+        String browserStart = "launched";
+        String outcome = "failure";
+        try {
+            if (this.properties.getWarm().isEnabled()) {
+                browserStart = this.prepareWarmBrowser(robot) ? "reused" : "launched";
+                this.runWarm(robot, request, logFile, start);
+            } else {
+                this.runCold(robot, request, logFile, start);
+            }
+            outcome = "success";
+        } finally {
+            Timer.builder(METRIC_PREFIX + ".macros")
+                .description("UI.Vision macros run, tagged with whether their browser was launched for them or reused")
+                .tag("browser", browserStart)
+                .tag("outcome", outcome)
+                .register(this.meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        // Only the logs of the failed macros are kept
+        Files.deleteIfExists(logFile);
+    }
+
+    private void runCold(Robot robot, ExecuteUIVisionMacroRequest request, Path logFile, long start)
+        throws IOException, InterruptedException, TimeoutException {
+        List<String> command = this.command(robot);
+        command.add(this.autoRunUrl(robot, request, logFile, this.properties.getCloseBrowserAsInt(), this.properties.getCloseRpaAsInt()));
+
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.appendTo(robot.getLogDirectory().resolve("browser.log").toFile()))
+            .start();
+
+        long deadline = start + this.properties.getExecutionTimeout().toNanos();
+
+        // The launched process is not waited for, the launcher of some browsers hands the page to a running instance
+        // and exits at once, and the browser stays open after the macro when it is not asked to close
+        try {
+            this.awaitLog(robot, request, logFile, deadline);
+        } catch (Exception e) {
+            this.destroy(process);
+            throw e;
+        }
+
+        // The next macro of the robot cannot open its profile until this browser has released it
+        if (this.properties.isCloseBrowser() && !process.waitFor(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            LOGGER.warn("Browser of {} still running after the macro, killing it", robot);
+            this.destroy(process);
+        }
+
+        this.checkLog(robot, logFile);
+    }
+
+    /**
+     * Check the browser kept by the robot, launching a new one if there is none or it is not healthy.
+     *
+     * @return whether the browser kept by the robot is reused
+     */
+    private boolean prepareWarmBrowser(Robot robot) throws IOException, InterruptedException {
+        BrowserInstance browser = robot.getBrowser();
+        if (browser != null) {
+            if (browser.isHealthy()) {
+                return true;
+            }
+
+            LOGGER.warn("Browser of {} failed its health check, launching a new one", robot);
+            this.closeBrowser(robot, "health");
+        }
+
+        WarmBrowserProperties warmProperties = this.properties.getWarm();
+        robot.setBrowser(
+            BrowserInstance.launch(
+                this.command(robot),
+                warmProperties.getDevtoolsPort() + robot.getIndex(),
+                robot.getLogDirectory().resolve("browser.log"),
+                warmProperties.getStartupTimeout()
+            )
+        );
+        Counter.builder(METRIC_PREFIX + ".browsers.launched")
+            .description("Warm browsers launched")
+            .register(this.meterRegistry)
+            .increment();
+
+        return false;
+    }
+
+    private void runWarm(Robot robot, ExecuteUIVisionMacroRequest request, Path logFile, long start)
+        throws IOException, InterruptedException, TimeoutException {
+        BrowserInstance browser = robot.getBrowser();
+        try {
+            browser.open(this.autoRunUrl(robot, request, logFile, 0, 0));
+            this.awaitLog(robot, request, logFile, start + this.properties.getExecutionTimeout().toNanos());
+            this.checkLog(robot, logFile);
+        } catch (Exception e) {
+            // Whatever the macro left behind is not reset by opening a new tab
+            this.closeBrowser(robot, "failure");
+            throw e;
+        }
+
+        if (browser.getRuns() >= this.properties.getWarm().getMaxRuns()) {
+            this.closeBrowser(robot, "runs");
+        }
+    }
+
+    private void closeBrowser(Robot robot, String reason) {
+        Counter.builder(METRIC_PREFIX + ".browsers.closed")
+            .description("Warm browsers closed")
+            .tag("reason", reason)
+            .register(this.meterRegistry)
+            .increment();
+
+        BrowserInstance browser = robot.getBrowser();
+        robot.setBrowser(null);
+        browser.close();
+    }
+
+    /**
+     * Wait for UI.Vision to save the log of the macro, forwarding the progress written meanwhile to Temporal as
+     * heartbeats and to KuFlow as task logs.
+     */
+    private void awaitLog(Robot robot, ExecuteUIVisionMacroRequest request, Path logFile, long deadline)
+        throws IOException, InterruptedException, TimeoutException {
+        ActivityExecutionContext context = Activity.getExecutionContext();
+        Duration heartbeatTimeout = this.properties.getHeartbeatTimeout();
+
+        try (
+            MacroProgressTail progressTail = new MacroProgressTail(robot.getProgressFile());
+            MacroTaskLog taskLog = new MacroTaskLog(this.kuFlowRestClient, request.getProcessItemId(), this.properties.getTaskLogInterval())
+        ) {
+            int steps = 0;
+            long lastProgress = System.nanoTime();
+            boolean finished = false;
+            while (!finished) {
+                // Checked before reading, the lines written right before the log are read in the same iteration
+                finished = Files.exists(logFile);
+
+                List<String> lines = progressTail.poll(finished ? Duration.ZERO : POLL_INTERVAL);
+                if (!lines.isEmpty()) {
+                    steps += lines.size();
+                    lastProgress = System.nanoTime();
+                    context.heartbeat(new MacroProgress(robot.getName(), steps, lines.get(lines.size() - 1)));
+                    taskLog.append(lines);
+                } else if (!finished && heartbeatTimeout != null && System.nanoTime() - lastProgress >= heartbeatTimeout.toNanos()) {
+                    throw new TimeoutException(
+                        "Macro %s made no progress in %s on %s, after %d steps".formatted(
+                            this.properties.getMacro(),
+                            heartbeatTimeout,
+                            robot,
+                            steps
+                        )
+                    );
+                }
+
+                if (!finished && deadline - System.nanoTime() <= 0) {
+                    throw new TimeoutException(
+                        "Macro %s did not finish within %s on %s".formatted(
+                            this.properties.getMacro(),
+                            this.properties.getExecutionTimeout(),
+                            robot
+                        )
+                    );
+                }
+
+                taskLog.flushIfDue();
+            }
+        }
+    }
+
+    private void checkLog(Robot robot, Path logFile) throws IOException {
+        String status;
+        try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+            status = Objects.toString(reader.readLine(), "").strip();
+        }
+
+        if (!status.startsWith(STATUS_OK)) {
+            throw ApplicationFailure.newFailure(
+                "Macro %s failed on %s: %s, see %s".formatted(this.properties.getMacro(), robot, status, logFile),
+                "UIVisionMacroFailure"
+            );
+        }
+    }
+
+    private List<String> command(Robot robot) {
+        List<String> command = new ArrayList<>(List.of(StringUtils.split(this.properties.getCommand())));
+
+        String profileArgument = this.properties.getPool().getProfileArgument();
+        if (StringUtils.isNotBlank(profileArgument)) {
+            // Split before formatting, the profile directory may contain spaces
+            for (String argument : StringUtils.split(profileArgument)) {
+                command.add(argument.formatted(robot.getProfileDirectory()));
+            }
+        }
+
+        return command;
+    }
+
+    private String autoRunUrl(Robot robot, ExecuteUIVisionMacroRequest request, Path logFile, int closeBrowser, int closeRpa) {
+        return "%s?direct=1&storage=xfile&macro=%s&closeBrowser=%d&closeRPA=%d&savelog=%s&cmd_var1=%s&cmd_var2=%s&cmd_var3=%s".formatted(
+            Path.of(this.properties.getAutoRunHtml()).toUri(),
+            this.encode(this.properties.getMacro()),
+            closeBrowser,
+            closeRpa,
+            this.encode(logFile.toString()),
+            request.getProcessItemId(),
+            this.encode(robot.getScreenshotFile().toString()),
+            this.encode(robot.getProgressFile().toString())
+        );
+    }
+
+    private String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private void destroy(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.uivision.activity.model;
+
+/**
+ * Heartbeat details of {@code executeUIVisionMacro}, shown in the pending activities of the workflow while the macro
+ * runs.
+ */
+public class MacroProgress {
+
+    private String robot;
+
+    private int steps;
+
+    private String lastStep;
+
+    public MacroProgress() {}
+
+    public MacroProgress(String robot, int steps, String lastStep) {
+        this.robot = robot;
+        this.steps = steps;
+        this.lastStep = lastStep;
+    }
+
+    /**
+     * @return robot running the macro, none while waiting for one
+     */
+    public String getRobot() {
+        return this.robot;
+    }
+
+    public void setRobot(String robot) {
+        this.robot = robot;
+    }
+
+    /**
+     * @return progress lines written by the macro so far
+     */
+    public int getSteps() {
+        return this.steps;
+    }
+
+    public void setSteps(int steps) {
+        this.steps = steps;
+    }
+
+    public String getLastStep() {
+        return this.lastStep;
+    }
+
+    public void setLastStep(String lastStep) {
+        this.lastStep = lastStep;
+    }
+}
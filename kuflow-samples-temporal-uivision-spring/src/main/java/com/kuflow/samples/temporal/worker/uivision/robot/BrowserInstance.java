@@ -0,0 +1,286 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.uivision.robot;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Browser kept running between the macros of a robot, driven through the DevTools HTTP endpoint of Chromium.
+ *
+ * <p>Before every macro the cookies of the browser are cleared, and so is the storage of the sites of the pages left
+ * open by the previous macro, through the DevTools protocol. The storage of the other sites visited, the HTTP cache and
+ * the storage of the UI.Vision extension, which holds its settings, are kept.
+ */
+public final class BrowserInstance implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BrowserInstance.class);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final long POLL_INTERVAL_MILLIS = 200;
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final String SITE_STORAGE_TYPES = "cookies,local_storage,indexeddb,websql,cache_storage,service_workers,file_systems";
+
+    private final Process process;
+
+    private final URI devtools;
+
+    private final Duration timeout;
+
+    private final HttpClient httpClient;
+
+    private int runs;
+
+    private BrowserInstance(Process process, int port, Duration timeout) {
+        this.process = process;
+        this.devtools = URI.create("http://127.0.0.1:" + port);
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    /**
+     * @param command browser and its arguments, the DevTools port and a blank page are appended to them
+     * @param output file the output of the browser is appended to
+     * @param timeout maximum time for the browser to answer on its DevTools port, and to answer every request later
+     */
+    public static BrowserInstance launch(List<String> command, int port, Path output, Duration timeout)
+        throws IOException, InterruptedException {
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--remote-debugging-port=" + port);
+        arguments.add("about:blank");
+
+        Process process = new ProcessBuilder(arguments)
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.appendTo(output.toFile()))
+            .start();
+        BrowserInstance browser = new BrowserInstance(process, port, timeout);
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!browser.isHealthy()) {
+            // A browser already running with the same profile takes over the launch, and the launched one exits
+            if (!process.isAlive() || deadline - System.nanoTime() <= 0) {
+                browser.close();
+                throw new IOException("Browser did not answer on DevTools port %d within %s".formatted(port, timeout));
+            }
+
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+
+        return browser;
+    }
+
+    /**
+     * @return whether the browser is running and answering on its DevTools port
+     */
+    public boolean isHealthy() throws InterruptedException {
+        if (!this.process.isAlive()) {
+            return false;
+        }
+
+        try {
+            this.send("GET", "/json/version");
+
+            return true;
+        } catch (IOException e) {
+            LOGGER.debug("Browser health check failed", e);
+
+            return false;
+        }
+    }
+
+    /**
+     * Clear the browsing data left by the previous macros, open the URL in a new tab and close their tabs.
+     */
+    public void open(String url) throws IOException, InterruptedException {
+        List<String> previousIds = new ArrayList<>();
+        Set<String> previousOrigins = new LinkedHashSet<>();
+        for (JsonNode target : OBJECT_MAPPER.readTree(this.send("GET", "/json/list"))) {
+            String targetUrl = target.path("url").asText();
+            // The UI.Vision panel is an extension page, kept open as the rest of the extension
+            if ("page".equals(target.path("type").asText()) && !targetUrl.startsWith("chrome-extension:")) {
+                previousIds.add(target.path("id").asText());
+                if (targetUrl.startsWith("http://") || targetUrl.startsWith("https://")) {
+                    URI targetUri = URI.create(targetUrl);
+                    previousOrigins.add(targetUri.getScheme() + "://" + targetUri.getRawAuthority());
+                }
+            }
+        }
+
+        // Cleared before the macro is opened, it starts running with its page
+        this.clearBrowsingData(previousOrigins);
+
+        this.send("PUT", "/json/new?" + URLEncoder.encode(url, StandardCharsets.UTF_8));
+
+        // Closed after opening the new tab, the browser exits when its last tab is closed
+        for (String id : previousIds) {
+            this.send("GET", "/json/close/" + id);
+        }
+
+        this.runs++;
+    }
+
+    /**
+     * @return macros opened in the browser
+     */
+    public int getRuns() {
+        return this.runs;
+    }
+
+    @Override
+    public void close() {
+        // Asked to exit first, so the profile is saved as when the browser is closed by the user
+        this.process.destroy();
+        try {
+            if (this.process.waitFor(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        this.process.descendants().forEach(ProcessHandle::destroyForcibly);
+        this.process.destroyForcibly();
+    }
+
+    private void clearBrowsingData(Set<String> origins) throws IOException, InterruptedException {
+        String webSocketUrl = OBJECT_MAPPER.readTree(this.send("GET", "/json/version")).path("webSocketDebuggerUrl").asText();
+
+        DevToolsListener listener = new DevToolsListener();
+        WebSocket webSocket = this.await(
+            this.httpClient.newWebSocketBuilder().connectTimeout(this.timeout).buildAsync(URI.create(webSocketUrl), listener)
+        );
+        try {
+            this.command(webSocket, listener, 1, "Storage.clearCookies", Map.of());
+            int id = 2;
+            for (String origin : origins) {
+                this.command(
+                    webSocket,
+                    listener,
+                    id++,
+                    "Storage.clearDataForOrigin",
+                    Map.of("origin", origin, "storageTypes", SITE_STORAGE_TYPES)
+                );
+            }
+        } finally {
+            webSocket.abort();
+        }
+    }
+
+    /**
+     * Send a DevTools protocol command to the browser and wait for its result, events received meanwhile are ignored.
+     */
+    private void command(WebSocket webSocket, DevToolsListener listener, int id, String method, Map<String, Object> params)
+        throws IOException, InterruptedException {
+        this.await(webSocket.sendText(OBJECT_MAPPER.writeValueAsString(Map.of("id", id, "method", method, "params", params)), true));
+
+        long deadline = System.nanoTime() + this.timeout.toNanos();
+        while (true) {
+            String message = listener.messages.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (message == null) {
+                throw new IOException("DevTools %s did not answer within %s".formatted(method, this.timeout));
+            }
+
+            JsonNode reply = OBJECT_MAPPER.readTree(message);
+            if (reply.path("id").asInt() == id) {
+                if (reply.has("error")) {
+                    throw new IOException("DevTools %s failed: %s".formatted(method, reply.get("error")));
+                }
+
+                return;
+            }
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get(this.timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new IOException("DevTools WebSocket failed", e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IOException("DevTools WebSocket did not answer within " + this.timeout, e);
+        }
+    }
+
+    private String send(String method, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(this.devtools.resolve(path))
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .timeout(this.timeout)
+            .build();
+        HttpResponse<String> response = this.httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("DevTools %s %s answered %d: %s".formatted(method, path, response.statusCode(), response.body()));
+        }
+
+        return response.body();
+    }
+
+    /**
+     * Queue of the text messages of the DevTools WebSocket, a message may arrive split in several frames.
+     */
+    private static final class DevToolsListener implements WebSocket.Listener {
+
+        private final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+
+        private final StringBuilder message = new StringBuilder();
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            this.message.append(data);
+            if (last) {
+                this.messages.add(this.message.toString());
+                this.message.setLength(0);
+            }
+            webSocket.request(1);
+
+            return null;
+        }
+    }
+}
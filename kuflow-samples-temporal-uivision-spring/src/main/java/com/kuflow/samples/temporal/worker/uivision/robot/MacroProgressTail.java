@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.uivision.robot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tail of the progress file a macro appends lines to while it runs. Changes in its directory are watched with a
+ * {@link WatchService}, and the file is read from where the previous read ended, so no line is read twice.
+ *
+ * <p>The file is read on every poll, events only shorten the wait: a watch service may drop events or, on some
+ * platforms, poll the directory itself.
+ */
+public final class MacroProgressTail implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final Path file;
+
+    private final WatchService watchService;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private final ByteArrayOutputStream partialLine = new ByteArrayOutputStream();
+
+    private FileChannel channel;
+
+    public MacroProgressTail(Path file) throws IOException {
+        this.file = file;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        try {
+            file
+                .getParent()
+                .register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            this.watchService.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Wait for a change in the directory of the file, up to the given timeout, and read the lines appended since the
+     * previous poll.
+     *
+     * @return complete lines appended to the file, a line still being written is returned once finished
+     */
+    public List<String> poll(Duration timeout) throws IOException, InterruptedException {
+        WatchKey key = this.watchService.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        if (key != null) {
+            // The events are not looked at, any of them may be the file or another one created next to it
+            key.pollEvents();
+            key.reset();
+        }
+
+        return this.read();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.watchService.close();
+        } finally {
+            if (this.channel != null) {
+                this.channel.close();
+            }
+        }
+    }
+
+    private List<String> read() throws IOException {
+        if (this.channel == null) {
+            try {
+                this.channel = FileChannel.open(this.file, StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                return List.of();
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        while (this.channel.read(this.buffer.clear()) > 0) {
+            this.buffer.flip();
+            while (this.buffer.hasRemaining()) {
+                byte value = this.buffer.get();
+                if (value == '\n') {
+                    lines.add(this.partialLine.toString(StandardCharsets.UTF_8).stripTrailing());
+                    this.partialLine.reset();
+                } else {
+                    this.partialLine.write(value);
+                }
+            }
+        }
+
+        return lines;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.uivision.robot;
+
+import java.nio.file.Path;
+
+/**
+ * A browser profile and the directory of its logs, used by a single macro at a time.
+ */
+public final class Robot {
+
+    private final int index;
+
+    private final String name;
+
+    private final Path profileDirectory;
+
+    private final Path logDirectory;
+
+    private volatile BrowserInstance browser;
+
+    Robot(int index, Path profileDirectory, Path logDirectory) {
+        this.index = index;
+        this.name = "robot-" + index;
+        this.profileDirectory = profileDirectory;
+        this.logDirectory = logDirectory;
+    }
+
+    public int getIndex() {
+        return this.index;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public Path getProfileDirectory() {
+        return this.profileDirectory;
+    }
+
+    public Path getLogDirectory() {
+        return this.logDirectory;
+    }
+
+    /**
+     * File the macro saves its screenshot to, given to it as {@code cmd_var2}.
+     */
+    public Path getScreenshotFile() {
+        return this.logDirectory.resolve("screenshot.png");
+    }
+
+    /**
+     * File the macro appends its progress to, one line per step, given to it as {@code cmd_var3}.
+     */
+    public Path getProgressFile() {
+        return this.logDirectory.resolve("progress.log");
+    }
+
+    /**
+     * Browser kept running between macros, only in warm mode and when the previous macro did not close it.
+     */
+    public BrowserInstance getBrowser() {
+        return this.browser;
+    }
+
+    public void setBrowser(BrowserInstance browser) {
+        this.browser = browser;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
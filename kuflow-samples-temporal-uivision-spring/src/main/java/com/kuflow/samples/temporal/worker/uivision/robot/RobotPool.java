@@ -0,0 +1,229 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.uivision.robot;
+
+import com.kuflow.samples.temporal.worker.uivision.SampleEngineWorkerUiVisionProperties.RobotPoolProperties;
+import com.kuflow.samples.temporal.worker.uivision.SampleEngineWorkerUiVisionProperties.UIVisionProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Fixed set of UI.Vision robots, each one with its own browser profile and logs directory, so several macros can run
+ * on the same host without sharing the browser nor their files. An activity leases a robot for the whole macro, and
+ * waits for one to be released when all of them are busy. The worker runs no more activities than robots, so the
+ * activities over the pool stay in the task queue, free to be run by another worker, instead of waiting here.
+ *
+ * <p>The most recently released robot is leased first, its browser profile is the most likely to be in the page cache.
+ *
+ * <p>Metrics, prefixed with {@value #METRIC_PREFIX}: {@code size} of the pool, {@code active} robots, {@code wait} time
+ * to lease one, and {@code busy} time of every robot tagged with its name. The utilisation of the pool is
+ * {@code active / size}, and the one of a robot the rate of its {@code busy} total time.
+ */
+public class RobotPool implements AutoCloseable {
+
+    public static final String METRIC_PREFIX = "kuflow.samples.uivision.robots";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RobotPool.class);
+
+    private final List<Robot> robots;
+
+    private final BlockingDeque<Robot> available = new LinkedBlockingDeque<>();
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final Duration maxWait;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer waitTimer;
+
+    private volatile boolean closed;
+
+    public RobotPool(UIVisionProperties properties, MeterRegistry meterRegistry) {
+        RobotPoolProperties poolProperties = properties.getPool();
+        if (poolProperties.getSize() < 1) {
+            throw new IllegalArgumentException("Robot pool size must be at least 1, got " + poolProperties.getSize());
+        }
+
+        this.maxWait = poolProperties.getMaxWait();
+        this.meterRegistry = meterRegistry;
+
+        Path profileTemplate = poolProperties.getProfileTemplate() != null ? Path.of(poolProperties.getProfileTemplate()) : null;
+        List<Robot> robots = new ArrayList<>(poolProperties.getSize());
+        for (int index = 0; index < poolProperties.getSize(); index++) {
+            String name = "robot-" + index;
+            Robot robot = new Robot(
+                index,
+                Path.of(poolProperties.getProfilesDirectory(), name).toAbsolutePath(),
+                Path.of(properties.getLogDirectory(), name).toAbsolutePath()
+            );
+            this.prepare(robot, profileTemplate);
+
+            robots.add(robot);
+            this.available.offerLast(robot);
+        }
+        this.robots = List.copyOf(robots);
+
+        Gauge.builder(METRIC_PREFIX + ".size", this.robots, List::size).description("UI.Vision robots of the pool").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".active", this.active, AtomicInteger::get)
+            .description("UI.Vision robots running a macro")
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder(METRIC_PREFIX + ".wait")
+            .description("Time waited to lease a UI.Vision robot")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    public Duration getMaxWait() {
+        return this.maxWait;
+    }
+
+    public List<Robot> getRobots() {
+        return this.robots;
+    }
+
+    /**
+     * @return a robot, closing the lease returns it to the pool
+     * @throws TimeoutException when no robot is released within the maximum wait
+     */
+    public Lease lease() throws InterruptedException, TimeoutException {
+        return this.lease(this.maxWait, () -> {});
+    }
+
+    /**
+     * @param interval time between the calls to the waiting callback
+     * @param waiting called while waiting for a robot, ie: to heartbeat the activity
+     * @return a robot, closing the lease returns it to the pool
+     * @throws TimeoutException when no robot is released within the maximum wait
+     */
+    public Lease lease(Duration interval, Runnable waiting) throws InterruptedException, TimeoutException {
+        if (this.closed) {
+            throw new IllegalStateException("UI.Vision robot pool is closed");
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + this.maxWait.toNanos();
+        Robot robot = null;
+        try {
+            for (long remaining = deadline - start; robot == null && remaining > 0; remaining = deadline - System.nanoTime()) {
+                robot = this.available.pollFirst(Math.min(remaining, interval.toNanos()), TimeUnit.NANOSECONDS);
+                if (robot == null) {
+                    waiting.run();
+                }
+            }
+        } finally {
+            this.waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        if (robot == null) {
+            throw new TimeoutException("No UI.Vision robot available within " + this.maxWait);
+        }
+
+        this.active.incrementAndGet();
+
+        return new Lease(robot);
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+
+        for (Robot robot : this.robots) {
+            BrowserInstance browser = robot.getBrowser();
+            if (browser != null) {
+                robot.setBrowser(null);
+                browser.close();
+            }
+        }
+    }
+
+    private void prepare(Robot robot, Path profileTemplate) {
+        try {
+            Files.createDirectories(robot.getLogDirectory());
+
+            if (profileTemplate != null && !Files.isDirectory(robot.getProfileDirectory())) {
+                LOGGER.info("Copying browser profile {} to {}", profileTemplate, robot.getProfileDirectory());
+                FileSystemUtils.copyRecursively(profileTemplate, robot.getProfileDirectory());
+            } else {
+                Files.createDirectories(robot.getProfileDirectory());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error preparing the directories of " + robot.getName(), e);
+        }
+    }
+
+    private void release(Robot robot, long leasedAt) {
+        Timer.builder(METRIC_PREFIX + ".busy")
+            .description("Time a UI.Vision robot was leased")
+            .tag("robot", robot.getName())
+            .register(this.meterRegistry)
+            .record(System.nanoTime() - leasedAt, TimeUnit.NANOSECONDS);
+
+        this.active.decrementAndGet();
+        this.available.offerFirst(robot);
+    }
+
+    /**
+     * Robot leased to a single macro until closed.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final Robot robot;
+
+        private final long leasedAt = System.nanoTime();
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Lease(Robot robot) {
+            this.robot = robot;
+        }
+
+        public Robot getRobot() {
+            return this.robot;
+        }
+
+        @Override
+        public void close() {
+            if (this.released.compareAndSet(false, true)) {
+                RobotPool.this.release(this.robot, this.leasedAt);
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * The MIT License
+ * Copyright © 2021-present KuFlow S.L.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.kuflow.samples.temporal.worker.uivision.upload;
+
+import com.azure.core.util.BinaryData;
+import com.kuflow.rest.KuFlowRestClient;
+import com.kuflow.rest.model.Document;
+import com.kuflow.samples.temporal.worker.uivision.SampleEngineWorkerUiVisionProperties.UploadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Uploads the files produced by the macros to their KuFlow tasks, through the client the worker is already
+ * authenticated with. Files are streamed from disk, the HTTP client transfers them from their file channel.
+ *
+ * <p>Files are staged out of the directory of the robot first, so it can run its next macro while the previous file is
+ * being uploaded. A file whose content was already uploaded to the same path of the same task, by SHA-256, is not
+ * uploaded again.
+ *
+ * <p>Metrics: {@value #METRIC_UPLOADS}, tagged with the result: {@code uploaded}, {@code duplicate} or {@code failed}.
+ */
+public class ArtifactUploader implements AutoCloseable {
+
+    public static final String METRIC_UPLOADS = "kuflow.samples.uivision.uploads";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArtifactUploader.class);
+
+    private final KuFlowRestClient kuFlowRestClient;
+
+    private final Path stagingDirectory;
+
+    private final ExecutorService executor;
+
+    private final Map<String, String> uploadedHashes;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param stagingDirectory directory the files wait in to be uploaded, in the same file system as the robots
+     */
+    public ArtifactUploader(
+        KuFlowRestClient kuFlowRestClient,
+        Path stagingDirectory,
+        UploadProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.kuFlowRestClient = kuFlowRestClient;
+        this.stagingDirectory = stagingDirectory;
+        this.meterRegistry = meterRegistry;
+
+        int dedupeEntries = properties.getDedupeEntries();
+        this.uploadedHashes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return this.size() > dedupeEntries;
+            }
+        };
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(properties.getConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "artifact-upload-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        try {
+            // Left by a previous run, their activities were retried and took them again
+            FileSystemUtils.deleteRecursively(stagingDirectory);
+            Files.createDirectories(stagingDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error preparing the upload directory " + stagingDirectory, e);
+        }
+    }
+
+    /**
+     * Move the file out of the directory of the robot, to be uploaded by {@link #upload}.
+     *
+     * @return the staged file
+     */
+    public Path stage(Path file) throws IOException {
+        // A directory per file keeps its name, the one given to KuFlow
+        Path directory = Files.createDirectory(this.stagingDirectory.resolve(UUID.randomUUID().toString()));
+
+        return Files.move(file, directory.resolve(file.getFileName()));
+    }
+
+    /**
+     * Upload a staged file to the data of the task, the file is deleted once done.
+     *
+     * @return completed with whether the file was uploaded, or skipped because its content already was
+     */
+    public CompletableFuture<Boolean> upload(UUID processItemId, String schemaPath, Path file) {
+        return CompletableFuture.supplyAsync(() -> this.uploadNow(processItemId, schemaPath, file), this.executor);
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                this.executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.executor.shutdownNow();
+        }
+    }
+
+    private boolean uploadNow(UUID processItemId, String schemaPath, Path file) {
+        long start = System.nanoTime();
+        String result = "failed";
+        try {
+            String target = processItemId + schemaPath;
+            String hash = this.hash(file);
+            synchronized (this.uploadedHashes) {
+                if (hash.equals(this.uploadedHashes.get(target))) {
+                    LOGGER.info(
+                        "Skipping upload of {} to {} {}, same content already uploaded",
+                        file.getFileName(),
+                        processItemId,
+                        schemaPath
+                    );
+                    result = "duplicate";
+
+                    return false;
+                }
+            }
+
+            Document document = new Document();
+            document.setFileName(file.getFileName().toString());
+            document.setContentType(Objects.requireNonNullElse(Files.probeContentType(file), "application/octet-stream"));
+            document.setFileContent(BinaryData.fromFile(file));
+            this.kuFlowRestClient.getProcessItemOperations().uploadProcessItemTaskDataDocument(processItemId, document, schemaPath);
+
+            synchronized (this.uploadedHashes) {
+                this.uploadedHashes.put(target, hash);
+            }
+            result = "uploaded";
+
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error uploading " + file, e);
+        } finally {
+            Timer.builder(METRIC_UPLOADS)
+                .description("Files produced by the macros uploaded to KuFlow")
+                .tag("result", result)
+                .register(this.meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            try {
+                Files.deleteIfExists(file);
+                Files.deleteIfExists(file.getParent());
+            } catch (IOException e) {
+                LOGGER.warn("Error deleting the uploaded file {}", file, e);
+            }
+        }
+    }
+
+    private String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        // Hashed from the page cache, without copying the file to the heap
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            digest.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}